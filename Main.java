@@ -1,12 +1,126 @@
+import src.managers.BookSearchIndex;
+import src.managers.CatalogExporter;
+import src.managers.CatalogImporter;
+import src.managers.DatabaseHelper;
+import src.managers.MigrationRunner;
+import src.managers.QueryMetrics;
+import src.managers.QueryPlanCheck;
+import src.managers.RecommendationEngine;
+import src.managers.WriteBehindQueue;
 import src.menus.MainMenu;
+import src.server.ApiServer;
+import src.server.TerminalServer;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Main {
+    private static final AtomicBoolean closed = new AtomicBoolean();
+
     public static void main(String[] args) {
+        if (!new MigrationRunner().migrate()) {
+            DatabaseHelper.getPool().close();
+            return;
+        }
+        List<String> options = Arrays.asList(args);
+        int importIndex = options.indexOf("--import");
+        if (importIndex >= 0) {
+            if (importIndex + 1 >= args.length) {
+                System.err.println("Usage: --import <catalog.csv|catalog.jsonl>");
+            } else {
+                try {
+                    CatalogImporter.ImportResult result = new CatalogImporter().importFile(Path.of(args[importIndex + 1]));
+                    System.out.printf("Import finished: %,d books imported, %,d records skipped.%n",
+                            result.getBooksImported(), result.getRejected());
+                } catch (Exception e) {
+                    System.err.println("Error importing catalog: " + e.getMessage());
+                }
+            }
+            DatabaseHelper.getPool().close();
+            return;
+        }
+
+        if (options.contains("--check-plans")) {
+            boolean plansOk = new QueryPlanCheck().run();
+            DatabaseHelper.getPool().close();
+            if (!plansOk) {
+                System.exit(1);
+            }
+            return;
+        }
+
+        int exportIndex = options.indexOf("--export");
+        if (exportIndex >= 0) {
+            if (exportIndex + 1 >= args.length) {
+                System.err.println("Usage: --export <directory> [--format jsonl|csv]");
+            } else {
+                int formatIndex = options.indexOf("--format");
+                String format = formatIndex >= 0 && formatIndex + 1 < args.length ? args[formatIndex + 1] : CatalogExporter.JSONL;
+                try {
+                    new CatalogExporter().exportAll(Path.of(args[exportIndex + 1]), format);
+                } catch (Exception e) {
+                    System.err.println("Error exporting data: " + e.getMessage());
+                }
+            }
+            DatabaseHelper.getPool().close();
+            return;
+        }
+
+        BookSearchIndex.getInstance().buildInBackground();
+        RecommendationEngine.getInstance().buildInBackground();
+        boolean serverMode = options.contains("--server");
+        boolean apiMode = options.contains("--api");
+
+        if (serverMode || apiMode) {
+            TerminalServer server = serverMode ? new TerminalServer(Integer.getInteger("plotpoint.server.port", 7878)) : null;
+            ApiServer apiServer = null;
+            if (apiMode) {
+                try {
+                    apiServer = new ApiServer(Integer.getInteger("plotpoint.api.port", 8080));
+                    apiServer.start();
+                } catch (IOException e) {
+                    System.err.println("Error starting API server: " + e.getMessage());
+                    DatabaseHelper.getPool().close();
+                    return;
+                }
+            }
+            ApiServer startedApi = apiServer;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (server != null) {
+                    server.close();
+                }
+                if (startedApi != null) {
+                    startedApi.close();
+                }
+                closeSharedResources();
+            }));
+            if (server != null) {
+                try {
+                    server.serve();
+                } catch (IOException e) {
+                    System.err.println("Error running server: " + e.getMessage());
+                }
+            }
+            return;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(Main::closeSharedResources));
         Scanner input = new Scanner(System.in);
         MainMenu mainMenu = new MainMenu(input);
         mainMenu.displayMenu();
         input.close();
+        closeSharedResources();
     }
-}
 
+    private static void closeSharedResources() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        WriteBehindQueue.getInstance().close();
+        QueryMetrics.getInstance().close();
+        DatabaseHelper.getPool().close();
+    }
+}
@@ -0,0 +1,38 @@
+DROP PROCEDURE IF EXISTS ensure_index;
+
+DELIMITER //
+CREATE PROCEDURE ensure_index(IN table_name_in VARCHAR(64), IN index_name_in VARCHAR(64), IN column_count_in INT, IN index_ddl TEXT)
+BEGIN
+    DECLARE existing_columns INT;
+
+    SELECT COUNT(*) INTO existing_columns
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = table_name_in AND index_name = index_name_in;
+
+    IF existing_columns <> column_count_in THEN
+        SET @ensure_index_sql = CONCAT('ALTER TABLE ', table_name_in,
+            IF(existing_columns > 0, CONCAT(' DROP INDEX ', index_name_in, ','), ''),
+            ' ADD ', index_ddl);
+        PREPARE ensure_index_stmt FROM @ensure_index_sql;
+        EXECUTE ensure_index_stmt;
+        DEALLOCATE PREPARE ensure_index_stmt;
+    END IF;
+END //
+DELIMITER ;
+
+CALL ensure_index('books', 'ft_books_search', 3, 'FULLTEXT INDEX ft_books_search (title, author, synopsis)');
+
+DELETE newer
+FROM shelf_books newer
+JOIN shelf_books older
+  ON newer.shelf_id = older.shelf_id
+ AND newer.book_id = older.book_id
+ AND newer.shelf_book_id > older.shelf_book_id;
+
+CALL ensure_index('shelf_books', 'uq_shelf_books_shelf_book', 2, 'UNIQUE INDEX uq_shelf_books_shelf_book (shelf_id, book_id)');
+CALL ensure_index('shelf_books', 'idx_shelf_books_book_shelf', 2, 'INDEX idx_shelf_books_book_shelf (book_id, shelf_id)');
+CALL ensure_index('book_tags', 'idx_book_tags_tag_book', 2, 'INDEX idx_book_tags_tag_book (tag_name, book_id)');
+CALL ensure_index('reviews', 'idx_reviews_user_date', 4, 'INDEX idx_reviews_user_date (user_id, date, book_id, rating)');
+CALL ensure_index('reviews', 'idx_reviews_book_date', 2, 'INDEX idx_reviews_book_date (book_id, date)');
+
+DROP PROCEDURE ensure_index;
@@ -0,0 +1,66 @@
+ALTER TABLE books
+    ADD COLUMN rating_sum INT NOT NULL DEFAULT 0,
+    ADD COLUMN rating_count INT NOT NULL DEFAULT 0;
+
+UPDATE books b
+LEFT JOIN (
+    SELECT book_id, SUM(rating) AS rating_sum, COUNT(rating) AS rating_count
+    FROM reviews
+    GROUP BY book_id
+) r ON b.book_id = r.book_id
+SET b.rating_sum = COALESCE(r.rating_sum, 0),
+    b.rating_count = COALESCE(r.rating_count, 0),
+    b.average_rating = IF(COALESCE(r.rating_count, 0) = 0, 0, r.rating_sum / r.rating_count);
+
+DROP TRIGGER IF EXISTS update_average_rating_after_insert;
+DROP TRIGGER IF EXISTS update_average_rating_after_update;
+
+DELIMITER //
+
+CREATE TRIGGER update_rating_aggregate_after_insert
+AFTER INSERT ON reviews
+FOR EACH ROW
+BEGIN
+    IF NEW.rating IS NOT NULL THEN
+        UPDATE books
+        SET rating_sum = rating_sum + NEW.rating,
+            rating_count = rating_count + 1,
+            average_rating = rating_sum / rating_count
+        WHERE book_id = NEW.book_id;
+    END IF;
+END //
+
+CREATE TRIGGER update_rating_aggregate_after_update
+AFTER UPDATE ON reviews
+FOR EACH ROW
+BEGIN
+    IF OLD.rating IS NOT NULL THEN
+        UPDATE books
+        SET rating_sum = rating_sum - OLD.rating,
+            rating_count = rating_count - 1,
+            average_rating = IF(rating_count = 0, 0, rating_sum / rating_count)
+        WHERE book_id = OLD.book_id;
+    END IF;
+    IF NEW.rating IS NOT NULL THEN
+        UPDATE books
+        SET rating_sum = rating_sum + NEW.rating,
+            rating_count = rating_count + 1,
+            average_rating = rating_sum / rating_count
+        WHERE book_id = NEW.book_id;
+    END IF;
+END //
+
+CREATE TRIGGER update_rating_aggregate_after_delete
+AFTER DELETE ON reviews
+FOR EACH ROW
+BEGIN
+    IF OLD.rating IS NOT NULL THEN
+        UPDATE books
+        SET rating_sum = rating_sum - OLD.rating,
+            rating_count = rating_count - 1,
+            average_rating = IF(rating_count = 0, 0, rating_sum / rating_count)
+        WHERE book_id = OLD.book_id;
+    END IF;
+END //
+
+DELIMITER ;
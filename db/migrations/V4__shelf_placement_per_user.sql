@@ -0,0 +1,18 @@
+ALTER TABLE shelf_books
+    ADD COLUMN user_id INT AFTER shelf_book_id;
+
+UPDATE shelf_books sb
+JOIN shelves s ON sb.shelf_id = s.shelf_id
+SET sb.user_id = s.user_id;
+
+DELETE older
+FROM shelf_books older
+JOIN shelf_books newer
+  ON older.user_id = newer.user_id
+ AND older.book_id = newer.book_id
+ AND older.shelf_book_id < newer.shelf_book_id;
+
+ALTER TABLE shelf_books
+    MODIFY user_id INT NOT NULL,
+    ADD UNIQUE INDEX uq_shelf_books_user_book (user_id, book_id),
+    ADD CONSTRAINT fk_shelf_books_user FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE;
@@ -0,0 +1,6 @@
+CREATE TABLE import_checkpoints (
+    source VARCHAR(255) PRIMARY KEY,
+    records_done BIGINT NOT NULL,
+    books_imported BIGINT NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
@@ -0,0 +1,36 @@
+CREATE TABLE catalog_version (
+    id TINYINT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO catalog_version (id, version) VALUES (1, 1);
+
+CREATE TRIGGER bump_catalog_version_after_book_insert AFTER INSERT ON books FOR EACH ROW
+    UPDATE catalog_version SET version = version + 1 WHERE id = 1 AND @plotpoint_bulk_catalog_write IS NULL;
+
+CREATE TRIGGER bump_catalog_version_after_book_update AFTER UPDATE ON books FOR EACH ROW
+    UPDATE catalog_version SET version = version + 1 WHERE id = 1 AND @plotpoint_bulk_catalog_write IS NULL;
+
+CREATE TRIGGER bump_catalog_version_after_book_delete AFTER DELETE ON books FOR EACH ROW
+    UPDATE catalog_version SET version = version + 1 WHERE id = 1 AND @plotpoint_bulk_catalog_write IS NULL;
+
+CREATE TRIGGER bump_catalog_version_after_book_tag_insert AFTER INSERT ON book_tags FOR EACH ROW
+    UPDATE catalog_version SET version = version + 1 WHERE id = 1 AND @plotpoint_bulk_catalog_write IS NULL;
+
+CREATE TRIGGER bump_catalog_version_after_book_tag_delete AFTER DELETE ON book_tags FOR EACH ROW
+    UPDATE catalog_version SET version = version + 1 WHERE id = 1 AND @plotpoint_bulk_catalog_write IS NULL;
+
+CREATE TRIGGER bump_catalog_version_after_tag_insert AFTER INSERT ON tags FOR EACH ROW
+    UPDATE catalog_version SET version = version + 1 WHERE id = 1 AND @plotpoint_bulk_catalog_write IS NULL;
+
+CREATE TRIGGER bump_catalog_version_after_tag_delete AFTER DELETE ON tags FOR EACH ROW
+    UPDATE catalog_version SET version = version + 1 WHERE id = 1 AND @plotpoint_bulk_catalog_write IS NULL;
+
+CREATE TRIGGER bump_catalog_version_after_review_insert AFTER INSERT ON reviews FOR EACH ROW
+    UPDATE catalog_version SET version = version + 1 WHERE id = 1 AND @plotpoint_bulk_catalog_write IS NULL;
+
+CREATE TRIGGER bump_catalog_version_after_review_update AFTER UPDATE ON reviews FOR EACH ROW
+    UPDATE catalog_version SET version = version + 1 WHERE id = 1 AND @plotpoint_bulk_catalog_write IS NULL;
+
+CREATE TRIGGER bump_catalog_version_after_review_delete AFTER DELETE ON reviews FOR EACH ROW
+    UPDATE catalog_version SET version = version + 1 WHERE id = 1 AND @plotpoint_bulk_catalog_write IS NULL;
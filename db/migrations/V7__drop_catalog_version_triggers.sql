@@ -0,0 +1,12 @@
+DROP TRIGGER IF EXISTS bump_catalog_version_after_book_insert;
+DROP TRIGGER IF EXISTS bump_catalog_version_after_book_update;
+DROP TRIGGER IF EXISTS bump_catalog_version_after_book_delete;
+DROP TRIGGER IF EXISTS bump_catalog_version_after_book_tag_insert;
+DROP TRIGGER IF EXISTS bump_catalog_version_after_book_tag_delete;
+DROP TRIGGER IF EXISTS bump_catalog_version_after_tag_insert;
+DROP TRIGGER IF EXISTS bump_catalog_version_after_tag_delete;
+DROP TRIGGER IF EXISTS bump_catalog_version_after_review_insert;
+DROP TRIGGER IF EXISTS bump_catalog_version_after_review_update;
+DROP TRIGGER IF EXISTS bump_catalog_version_after_review_delete;
+
+DROP TABLE IF EXISTS catalog_version;
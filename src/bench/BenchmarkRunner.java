@@ -0,0 +1,251 @@
+package src.bench;
+import src.managers.BookCache;
+import src.managers.BookManager;
+import src.managers.DatabaseHelper;
+import src.managers.ReadingStatsStore;
+import src.managers.ReviewManager;
+import src.managers.ShelfManager;
+import src.managers.TagDictionary;
+import src.models.Book;
+import src.models.User;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Scanner;
+
+public class BenchmarkRunner {
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("plotpoint.bench.warmupIterations", 3);
+    private static final int MEASURED_ITERATIONS = Integer.getInteger("plotpoint.bench.iterations", 5);
+    private static final long ITERATION_MILLIS = Long.getLong("plotpoint.bench.iterationMs", 1_000L);
+    private static final String FILTER = System.getProperty("plotpoint.bench.filter", "");
+    private static final int PAGE_SIZE = 10;
+
+    private static volatile Object sink;
+
+    private final BookManager bookManager = new BookManager();
+    private final ShelfManager shelfManager = new ShelfManager();
+    private final ReviewManager reviewManager = new ReviewManager();
+    private final BookCache bookCache = BookCache.getInstance();
+    private final ReadingStatsStore statsStore = ReadingStatsStore.getInstance();
+    private final Map<String, Operation> benchmarks = new LinkedHashMap<>();
+    private final Random random = new Random(7);
+    private final PrintStream report = System.out;
+
+    private int[] bookIds;
+    private List<User> users;
+    private List<String> genres;
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--seed")) {
+            new DataSeeder().seed();
+        }
+        BenchmarkRunner runner = new BenchmarkRunner();
+        try {
+            runner.run();
+        } finally {
+            DatabaseHelper.getPool().close();
+        }
+    }
+
+    public BenchmarkRunner() {
+        add("BookManager.searchByTitle", () -> bookManager.searchByTitle(randomWord(), null, PAGE_SIZE));
+        add("BookManager.getRecommendedBooksByTag", () -> bookManager.getRecommendedBooksByTag(randomGenre(), null, PAGE_SIZE));
+        add("Book construction (in-memory)", () -> {
+            Book book = new Book(randomBookId(), "Title", "Author", "2001-01-01", 320, 3.75, "Synopsis", 12);
+            book.setDetails(new int[]{0, 3, 7});
+            return book;
+        });
+        add("BookManager.getBooksByIds (cold cache, 20 books)", () -> {
+            bookCache.invalidateAll();
+            return bookManager.getBooksByIds(randomBookIds(20));
+        });
+        add("BookManager.hydrateBooks (cold cache, 20 books)", () -> {
+            bookCache.invalidateAll();
+            List<Book> books = bookManager.getBooksByIds(randomBookIds(20));
+            bookManager.hydrateBooks(books);
+            return books;
+        });
+        add("ReviewManager.loadReviews", () -> reviewManager.loadReviews(randomBookId()));
+        add("ShelfManager.showMostReadGenres (cold stats)", () -> {
+            statsStore.invalidateAll();
+            shelfManager.showMostReadGenres(randomUser(), pressEnter());
+            return null;
+        });
+        add("ShelfManager.showBooksReadPerMonth (cold stats)", () -> {
+            statsStore.invalidateAll();
+            shelfManager.showBooksReadPerMonth(randomUser(), pressEnter());
+            return null;
+        });
+        add("ShelfManager.showPagesReadPerMonth (cold stats)", () -> {
+            statsStore.invalidateAll();
+            shelfManager.showPagesReadPerMonth(randomUser(), pressEnter());
+            return null;
+        });
+        add("ShelfManager.showAverageRatingPerMonth (cold stats)", () -> {
+            statsStore.invalidateAll();
+            shelfManager.showAverageRatingPerMonth(randomUser(), pressEnter());
+            return null;
+        });
+        add("ShelfManager.showMostReadGenres (warm stats)", () -> {
+            shelfManager.showMostReadGenres(randomUser(), pressEnter());
+            return null;
+        });
+    }
+
+    private void add(String name, Operation operation) {
+        benchmarks.put(name, operation);
+    }
+
+    public void run() throws Exception {
+        loadFixtures();
+        report.printf("Fixtures: %d books, %d users, %d genres. %d warmup + %d measured iterations of %d ms.%n%n",
+                bookIds.length, users.size(), genres.size(), WARMUP_ITERATIONS, MEASURED_ITERATIONS, ITERATION_MILLIS);
+        report.printf("%-52s %12s %10s %10s %10s %10s%n", "Benchmark", "ops/s", "avg us", "p50 us", "p99 us", "max us");
+
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (Map.Entry<String, Operation> benchmark : benchmarks.entrySet()) {
+                if (benchmark.getKey().toLowerCase().contains(FILTER.toLowerCase())) {
+                    measure(benchmark.getKey(), benchmark.getValue());
+                }
+            }
+        } finally {
+            System.setOut(report);
+        }
+        report.println();
+        report.println(DatabaseHelper.getPool());
+        report.println(bookCache);
+    }
+
+    private void measure(String name, Operation operation) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iterate(operation, new Samples());
+        }
+
+        Samples samples = new Samples();
+        long elapsedNanos = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            elapsedNanos += iterate(operation, samples);
+        }
+
+        long[] sorted = samples.sorted();
+        double opsPerSecond = sorted.length / (elapsedNanos / 1e9);
+        report.printf("%-52s %12.1f %10.1f %10.1f %10.1f %10.1f%n", name, opsPerSecond,
+                samples.total / (double) sorted.length / 1e3,
+                percentile(sorted, 0.50) / 1e3, percentile(sorted, 0.99) / 1e3, sorted[sorted.length - 1] / 1e3);
+    }
+
+    private long iterate(Operation operation, Samples samples) throws Exception {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + ITERATION_MILLIS * 1_000_000L;
+        long now = startedAt;
+        while (now < deadline) {
+            long before = now;
+            sink = operation.run();
+            now = System.nanoTime();
+            samples.add(now - before);
+        }
+        return now - startedAt;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private void loadFixtures() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        users = new ArrayList<>();
+        try (Connection connection = DatabaseHelper.getPool().borrow()) {
+            try (PreparedStatement preparedStatement = connection.prepareStatement("SELECT book_id FROM books ORDER BY RAND() LIMIT 10000")) {
+                ResultSet resultSet = preparedStatement.executeQuery();
+                while (resultSet.next()) {
+                    ids.add(resultSet.getInt("book_id"));
+                }
+            }
+
+            String userQuery = """
+                SELECT user_id, username, password, date_joined, is_admin FROM users
+                WHERE username LIKE ?
+                ORDER BY user_id
+                LIMIT 1000
+            """;
+            try (PreparedStatement preparedStatement = connection.prepareStatement(userQuery)) {
+                preparedStatement.setString(1, DataSeeder.USER_PREFIX + "%");
+                ResultSet resultSet = preparedStatement.executeQuery();
+                while (resultSet.next()) {
+                    Timestamp dateJoined = resultSet.getTimestamp("date_joined");
+                    users.add(new User(resultSet.getInt("user_id"), resultSet.getString("username"),
+                            resultSet.getString("password"), dateJoined, resultSet.getBoolean("is_admin")));
+                }
+            }
+        }
+
+        bookIds = ids.stream().mapToInt(Integer::intValue).toArray();
+        genres = TagDictionary.getInstance().namesOfType(TagDictionary.GENRE);
+        if (bookIds.length == 0 || users.isEmpty() || genres.isEmpty()) {
+            throw new IllegalStateException("No benchmark data found; run with --seed first.");
+        }
+    }
+
+    private int randomBookId() {
+        return bookIds[random.nextInt(bookIds.length)];
+    }
+
+    private List<Integer> randomBookIds(int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(randomBookId());
+        }
+        return ids;
+    }
+
+    private User randomUser() {
+        return users.get(random.nextInt(users.size()));
+    }
+
+    private String randomGenre() {
+        return genres.get(random.nextInt(genres.size()));
+    }
+
+    private String randomWord() {
+        return DataSeeder.WORDS[random.nextInt(DataSeeder.WORDS.length)];
+    }
+
+    private static Scanner pressEnter() {
+        return new Scanner("\n\n");
+    }
+
+    private interface Operation {
+        Object run() throws Exception;
+    }
+
+    private static class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long total;
+
+        private void add(long elapsed) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = elapsed;
+            total += elapsed;
+        }
+
+        private long[] sorted() {
+            long[] sorted = Arrays.copyOf(nanos, Math.max(size, 1));
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package src.bench;
+import src.managers.DatabaseHelper;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class DataSeeder {
+    static final String USER_PREFIX = "bench_";
+    static final String[] WORDS = {
+            "shadow", "river", "crown", "garden", "winter", "silver", "storm", "empire", "secret", "ocean",
+            "forest", "night", "glass", "fire", "moon", "city", "stone", "memory", "letter", "island",
+            "summer", "house", "road", "star", "wolf", "song", "mirror", "queen", "harbor", "dream",
+            "bridge", "echo", "lantern", "thorn", "raven", "tide", "ember", "orchard", "compass", "atlas"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Ada", "Bram", "Clara", "Dmitri", "Elena", "Farid", "Grace", "Hiro", "Iris", "Jonas",
+            "Kira", "Leo", "Maya", "Nico", "Olga", "Pablo", "Quinn", "Rosa", "Sami", "Tove"
+    };
+    private static final String[] LAST_NAMES = {
+            "Abbott", "Barros", "Chen", "Duarte", "Eriksen", "Fontaine", "Gallo", "Haddad", "Ivanova", "Jensen",
+            "Kowalski", "Larsen", "Moreau", "Nakamura", "Okafor", "Petrov", "Quiroga", "Rahman", "Silva", "Tanaka"
+    };
+    private static final String[] SHELF_NAMES = {"Read", "Reading", "Want to Read"};
+    private static final int BATCH_SIZE = 1_000;
+
+    private final int bookCount = Integer.getInteger("plotpoint.bench.books", 10_000);
+    private final int userCount = Integer.getInteger("plotpoint.bench.users", Math.max(100, bookCount / 100));
+    private final int reviewCount = Integer.getInteger("plotpoint.bench.reviews", bookCount * 10);
+    private final int shelvedPerUser = Integer.getInteger("plotpoint.bench.shelvedPerUser", 50);
+    private final Random random = new Random(Long.getLong("plotpoint.bench.seed", 42L));
+
+    public void seed() throws SQLException {
+        try (Connection connection = DatabaseHelper.openBulkConnection()) {
+            connection.setAutoCommit(false);
+
+            List<String> genres = loadTagNames(connection, "genre");
+            List<String> moods = loadTagNames(connection, "mood");
+            if (genres.isEmpty() || moods.isEmpty()) {
+                throw new SQLException("The tags table is empty; run the migrations first.");
+            }
+
+            long startedAt = System.currentTimeMillis();
+            int[] bookIds = seedBooks(connection, genres, moods);
+            int[] userIds = seedUsers(connection);
+            seedReviews(connection, bookIds, userIds);
+            seedShelves(connection, bookIds, userIds);
+
+            System.out.printf("Seeded %d books, %d users and up to %d reviews in %d ms.%n",
+                    bookIds.length, userIds.length, reviewCount, System.currentTimeMillis() - startedAt);
+        }
+    }
+
+    private List<String> loadTagNames(Connection connection, String type) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement preparedStatement = connection.prepareStatement("SELECT tag_name FROM tags WHERE tag_type = ?")) {
+            preparedStatement.setString(1, type);
+            ResultSet resultSet = preparedStatement.executeQuery();
+            while (resultSet.next()) {
+                names.add(resultSet.getString("tag_name"));
+            }
+        }
+        return names;
+    }
+
+    private int[] seedBooks(Connection connection, List<String> genres, List<String> moods) throws SQLException {
+        int firstId = maxId(connection, "SELECT COALESCE(MAX(book_id), 0) FROM books") + 1;
+        String bookQuery = "INSERT INTO books (title, author, publication_date, page_count, synopsis) VALUES (?, ?, ?, ?, ?)";
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(bookQuery)) {
+            for (int i = 0; i < bookCount; i++) {
+                String title = word() + " " + word() + " " + word() + " " + i;
+                preparedStatement.setString(1, Character.toUpperCase(title.charAt(0)) + title.substring(1));
+                preparedStatement.setString(2, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                preparedStatement.setObject(3, LocalDate.of(1850, 1, 1).plusDays(random.nextInt(175 * 365)));
+                preparedStatement.setInt(4, 80 + random.nextInt(900));
+                preparedStatement.setString(5, synopsis());
+                preparedStatement.addBatch();
+                flushIfFull(connection, preparedStatement, i, "books");
+            }
+            preparedStatement.executeBatch();
+            connection.commit();
+        }
+
+        int[] bookIds = loadIds(connection, "SELECT book_id FROM books WHERE book_id >= ? ORDER BY book_id", firstId);
+
+        String tagQuery = "INSERT IGNORE INTO book_tags (book_id, tag_name) VALUES (?, ?)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(tagQuery)) {
+            for (int i = 0; i < bookIds.length; i++) {
+                for (int g = 1 + random.nextInt(3); g > 0; g--) {
+                    preparedStatement.setInt(1, bookIds[i]);
+                    preparedStatement.setString(2, genres.get(random.nextInt(genres.size())));
+                    preparedStatement.addBatch();
+                }
+                for (int m = 1 + random.nextInt(2); m > 0; m--) {
+                    preparedStatement.setInt(1, bookIds[i]);
+                    preparedStatement.setString(2, moods.get(random.nextInt(moods.size())));
+                    preparedStatement.addBatch();
+                }
+                flushIfFull(connection, preparedStatement, i, "book tags");
+            }
+            preparedStatement.executeBatch();
+            connection.commit();
+        }
+        return bookIds;
+    }
+
+    private int[] seedUsers(Connection connection) throws SQLException {
+        int firstId = maxId(connection, "SELECT COALESCE(MAX(user_id), 0) FROM users") + 1;
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement("INSERT INTO users (username, password) VALUES (?, ?)")) {
+            for (int i = 0; i < userCount; i++) {
+                preparedStatement.setString(1, USER_PREFIX + runId + "_" + i);
+                preparedStatement.setString(2, "bench");
+                preparedStatement.addBatch();
+                flushIfFull(connection, preparedStatement, i, "users");
+            }
+            preparedStatement.executeBatch();
+            connection.commit();
+        }
+        return loadIds(connection, "SELECT user_id FROM users WHERE user_id >= ? ORDER BY user_id", firstId);
+    }
+
+    private void seedReviews(Connection connection, int[] bookIds, int[] userIds) throws SQLException {
+        String query = "INSERT IGNORE INTO reviews (book_id, user_id, rating, review_text, date) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            for (int i = 0; i < reviewCount; i++) {
+                preparedStatement.setInt(1, bookIds[skewedIndex(bookIds.length)]);
+                preparedStatement.setInt(2, userIds[random.nextInt(userIds.length)]);
+                preparedStatement.setInt(3, 1 + random.nextInt(5));
+                preparedStatement.setString(4, synopsis());
+                preparedStatement.setTimestamp(5, pastTimestamp());
+                preparedStatement.addBatch();
+                flushIfFull(connection, preparedStatement, i, "reviews");
+            }
+            preparedStatement.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private void seedShelves(Connection connection, int[] bookIds, int[] userIds) throws SQLException {
+        String query = """
+            INSERT IGNORE INTO shelf_books (user_id, shelf_id, book_id, date_added)
+            SELECT s.user_id, s.shelf_id, ?, ? FROM shelves s WHERE s.user_id = ? AND s.shelf_name = ?
+        """;
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            int row = 0;
+            for (int userId : userIds) {
+                for (int i = 0; i < shelvedPerUser; i++) {
+                    preparedStatement.setInt(1, bookIds[skewedIndex(bookIds.length)]);
+                    preparedStatement.setTimestamp(2, pastTimestamp());
+                    preparedStatement.setInt(3, userId);
+                    preparedStatement.setString(4, SHELF_NAMES[random.nextInt(SHELF_NAMES.length)]);
+                    preparedStatement.addBatch();
+                    flushIfFull(connection, preparedStatement, row++, "shelved books");
+                }
+            }
+            preparedStatement.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private void flushIfFull(Connection connection, PreparedStatement preparedStatement, int index, String label) throws SQLException {
+        if ((index + 1) % BATCH_SIZE == 0) {
+            preparedStatement.executeBatch();
+            connection.commit();
+            if ((index + 1) % (BATCH_SIZE * 100) == 0) {
+                System.out.println("  " + (index + 1) + " " + label + "...");
+            }
+        }
+    }
+
+    private int maxId(Connection connection, String query) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            ResultSet resultSet = statement.executeQuery(query);
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private int[] loadIds(Connection connection, String query, int firstId) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setInt(1, firstId);
+            ResultSet resultSet = preparedStatement.executeQuery();
+            while (resultSet.next()) {
+                ids.add(resultSet.getInt(1));
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int skewedIndex(int size) {
+        double skewed = Math.pow(random.nextDouble(), 2);
+        return (int) (skewed * size);
+    }
+
+    private Timestamp pastTimestamp() {
+        return Timestamp.valueOf(LocalDateTime.now().minusMinutes(random.nextInt(2 * 365 * 24 * 60)));
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private String synopsis() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 12 + random.nextInt(30); i > 0; i--) {
+            text.append(word()).append(' ');
+        }
+        return text.toString().trim();
+    }
+}
@@ -0,0 +1,157 @@
+package src.managers;
+import src.models.Book;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+public class BookCache {
+    private static final BookCache instance = new BookCache(
+            Integer.getInteger("plotpoint.cache.maxBooks", 5_000),
+            Long.getLong("plotpoint.cache.ttlMs", 600_000L)
+    );
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long ttlNanos;
+    private final LinkedHashMap<Integer, CachedBook> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+    private long generation;
+
+    public BookCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = Math.max(1, ttlMillis);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    public static BookCache getInstance() {
+        return instance;
+    }
+
+    public synchronized Book get(int bookId) {
+        CachedBook cached = entries.get(bookId);
+        if (cached == null) {
+            misses++;
+            return null;
+        }
+        if (System.nanoTime() - cached.storedAt > ttlNanos) {
+            entries.remove(bookId);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return cached.book;
+    }
+
+    public synchronized Book refresh(Book fresh) {
+        Book cached = peek(fresh.getBookId());
+        if (cached != null && sameFields(cached, fresh)) {
+            return cached;
+        }
+        put(fresh);
+        return fresh;
+    }
+
+    public synchronized void putIfAbsent(Book book) {
+        if (peek(book.getBookId()) == null) {
+            put(book);
+        }
+    }
+
+    private Book peek(int bookId) {
+        CachedBook cached = entries.get(bookId);
+        if (cached == null || System.nanoTime() - cached.storedAt > ttlNanos) {
+            return null;
+        }
+        return cached.book;
+    }
+
+    private static boolean sameFields(Book cached, Book fresh) {
+        return cached.getPageCount() == fresh.getPageCount()
+                && cached.getReviewCount() == fresh.getReviewCount()
+                && Double.compare(cached.getOverallRatingValue(), fresh.getOverallRatingValue()) == 0
+                && Objects.equals(cached.getTitle(), fresh.getTitle())
+                && Objects.equals(cached.getAuthor(), fresh.getAuthor())
+                && Objects.equals(cached.getPublishedDate(), fresh.getPublishedDate())
+                && Objects.equals(cached.getSynopsis(), fresh.getSynopsis());
+    }
+
+    public synchronized void put(Book book) {
+        entries.put(book.getBookId(), new CachedBook(book));
+        Iterator<Map.Entry<Integer, CachedBook>> eldestFirst = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldestFirst.hasNext()) {
+            eldestFirst.next();
+            eldestFirst.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void invalidate(int bookId) {
+        generation++;
+        if (entries.remove(bookId) != null) {
+            invalidations++;
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized long getExpirationCount() {
+        return expirations;
+    }
+
+    public synchronized long getInvalidationCount() {
+        return invalidations;
+    }
+
+    @Override
+    public synchronized String toString() {
+        long lookups = hits + misses;
+        return String.format("BookCache[size=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, expirations=%d, invalidations=%d]",
+                entries.size(), maxEntries, hits, misses, lookups == 0 ? 0 : hits * 100.0 / lookups,
+                evictions, expirations, invalidations);
+    }
+
+    private static class CachedBook {
+        private final Book book;
+        private final long storedAt = System.nanoTime();
+
+        private CachedBook(Book book) {
+            this.book = book;
+        }
+    }
+}
@@ -1,53 +1,216 @@
 package src.managers;
 import src.models.Book;
+import src.models.BookCursor;
+import src.models.BookPage;
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class BookManager {
 
-    private final DatabaseHelper dbHelper = new DatabaseHelper();
+    private static final int HYDRATION_CHUNK_SIZE = 500;
+    private static final BigDecimal FIRST_PAGE_RATING = new BigDecimal("10.00");
+    private static final BigDecimal FIRST_PAGE_RELEVANCE = new BigDecimal("999999999999");
+
+    static final String KEYWORD_SEARCH_QUERY = """
+        SELECT *, CAST(MATCH(title, author, synopsis) AGAINST (? IN BOOLEAN MODE) AS DECIMAL(20, 8)) AS relevance
+        FROM books
+        WHERE MATCH(title, author, synopsis) AGAINST (? IN BOOLEAN MODE)
+        HAVING relevance < ? OR (relevance = ? AND book_id > ?)
+        ORDER BY relevance DESC, book_id ASC
+        LIMIT ?
+    """;
 
-    public List<Book> searchByTitle(String title) {
-        List<Book> books = new ArrayList<>();
-        String query = "SELECT * FROM books WHERE title LIKE ?";
+    static final String BOOK_TAGS_QUERY = "SELECT tag_name FROM book_tags WHERE book_id = ?";
+
+    static final String RECOMMENDED_BY_TAG_QUERY = """
+        SELECT b.* FROM books b
+        JOIN book_tags bt ON b.book_id = bt.book_id
+        WHERE bt.tag_name = ?
+          AND (b.average_rating < ? OR (b.average_rating = ? AND b.book_id > ?))
+        ORDER BY b.average_rating DESC, b.book_id ASC
+        LIMIT ?
+    """;
+
+    static final String REVIEWED_BOOKS_QUERY = """
+        SELECT b.book_id, b.title, b.author, b.publication_date, b.page_count, b.synopsis, b.average_rating, b.rating_count
+        FROM books b
+        JOIN reviews r ON b.book_id = r.book_id
+        WHERE r.user_id = ?
+    """;
+
+    private final DatabaseHelper dbHelper = new DatabaseHelper();
+    private final BookSearchIndex searchIndex = BookSearchIndex.getInstance();
+    private final BookCache bookCache = BookCache.getInstance();
+    private final TagDictionary tagDictionary = TagDictionary.getInstance();
+    private final ReadingStatsStore statsStore = ReadingStatsStore.getInstance();
+    private final RecommendationEngine recommendations = RecommendationEngine.getInstance();
+    private final SessionRegistry sessions = SessionRegistry.getInstance();
+
+    public BookPage searchByTitle(String title, BookCursor after, int pageSize) {
+        String query = """
+            SELECT * FROM books
+            WHERE title LIKE ? AND book_id > ?
+            ORDER BY book_id
+            LIMIT ?
+        """;
 
         try (Connection connection = dbHelper.connect();
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {
 
             preparedStatement.setString(1, "%" + title + "%");
-            ResultSet resultSet = preparedStatement.executeQuery();
-
-            while (resultSet.next()) {
-                books.add(extractBookFromResultSet(resultSet));
-            }
+            preparedStatement.setInt(2, after == null ? 0 : after.getBookId());
+            preparedStatement.setInt(3, pageSize + 1);
+            return readPage(preparedStatement, pageSize);
         } catch (Exception e) {
             System.err.println("Error searching books by title: " + e.getMessage());
         }
 
-        return books;
+        return new BookPage(new ArrayList<>(), null);
     }
 
-    public List<Book> searchByAuthor(String author) {
-        List<Book> books = new ArrayList<>();
-        String query = "SELECT * FROM books WHERE author LIKE ?";
+    public BookPage searchByAuthor(String author, BookCursor after, int pageSize) {
+        String query = """
+            SELECT * FROM books
+            WHERE author LIKE ? AND book_id > ?
+            ORDER BY book_id
+            LIMIT ?
+        """;
 
         try (Connection connection = dbHelper.connect();
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {
 
             preparedStatement.setString(1, "%" + author + "%");
-            ResultSet resultSet = preparedStatement.executeQuery();
+            preparedStatement.setInt(2, after == null ? 0 : after.getBookId());
+            preparedStatement.setInt(3, pageSize + 1);
+            return readPage(preparedStatement, pageSize);
+        } catch (Exception e) {
+            System.err.println("Error searching books by author: " + e.getMessage());
+        }
 
-            while (resultSet.next()) {
-                books.add(extractBookFromResultSet(resultSet));
+        return new BookPage(new ArrayList<>(), null);
+    }
+
+    private BookPage readPage(PreparedStatement preparedStatement, int pageSize) throws Exception {
+        return readPage(preparedStatement, pageSize, "average_rating");
+    }
+
+    private BookPage readPage(PreparedStatement preparedStatement, int pageSize, String cursorColumn) throws Exception {
+        List<Book> books = new ArrayList<>();
+        BookCursor lastCursor = null;
+        BookCursor nextCursor = null;
+
+        ResultSet resultSet = preparedStatement.executeQuery();
+        while (resultSet.next()) {
+            if (books.size() == pageSize) {
+                nextCursor = lastCursor;
+                break;
             }
+            books.add(extractBookFromResultSet(resultSet));
+            lastCursor = new BookCursor(resultSet.getBigDecimal(cursorColumn), resultSet.getInt("book_id"));
+        }
+        return new BookPage(books, nextCursor);
+    }
+
+    public BookPage searchByKeywords(String keywords, BookCursor after, int pageSize) {
+        String searchExpression = toFullTextExpression(keywords);
+        if (searchExpression.isEmpty()) {
+            return new BookPage(new ArrayList<>(), null);
+        }
+
+        try (Connection connection = dbHelper.connect();
+             PreparedStatement preparedStatement = connection.prepareStatement(KEYWORD_SEARCH_QUERY)) {
+
+            BigDecimal relevance = after == null ? FIRST_PAGE_RELEVANCE : after.getAverageRating();
+            preparedStatement.setString(1, searchExpression);
+            preparedStatement.setString(2, searchExpression);
+            preparedStatement.setBigDecimal(3, relevance);
+            preparedStatement.setBigDecimal(4, relevance);
+            preparedStatement.setInt(5, after == null ? 0 : after.getBookId());
+            preparedStatement.setInt(6, pageSize + 1);
+            return readPage(preparedStatement, pageSize, "relevance");
         } catch (Exception e) {
-            System.err.println("Error searching books by author: " + e.getMessage());
+            System.err.println("Error searching books by keywords: " + e.getMessage());
+        }
+
+        return new BookPage(new ArrayList<>(), null);
+    }
+
+    private String toFullTextExpression(String keywords) {
+        StringBuilder expression = new StringBuilder();
+        for (String term : keywords.toLowerCase().split("[^\\p{L}\\p{N}']+")) {
+            if (!term.isEmpty()) {
+                if (expression.length() > 0) {
+                    expression.append(' ');
+                }
+                expression.append(term).append('*');
+            }
         }
+        return expression.toString();
+    }
 
+    public List<Book> quickSearch(String text, int limit) {
+        if (!searchIndex.isBuilt()) {
+            searchIndex.buildInBackground();
+            return searchByKeywords(text, null, limit).getBooks();
+        }
+        return getBooksByIds(searchIndex.search(text, limit));
+    }
+
+    public Book getBookById(int bookId) {
+        List<Book> books = getBooksByIds(List.of(bookId));
+        return books.isEmpty() ? null : books.get(0);
+    }
+
+    public List<Book> getBooksByIds(List<Integer> bookIds) {
+        Map<Integer, Book> booksById = new HashMap<>();
+        List<Integer> missingIds = new ArrayList<>();
+        for (int bookId : bookIds) {
+            Book cached = bookCache.get(bookId);
+            if (cached != null) {
+                booksById.put(bookId, cached);
+            } else {
+                missingIds.add(bookId);
+            }
+        }
+
+        if (!missingIds.isEmpty()) {
+            String placeholders = String.join(", ", Collections.nCopies(missingIds.size(), "?"));
+            String query = "SELECT * FROM books WHERE book_id IN (" + placeholders + ")";
+
+            try (Connection connection = dbHelper.connect();
+                 PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+
+                for (int i = 0; i < missingIds.size(); i++) {
+                    preparedStatement.setInt(i + 1, missingIds.get(i));
+                }
+                ResultSet resultSet = preparedStatement.executeQuery();
+
+                while (resultSet.next()) {
+                    Book book = extractBookFromResultSet(resultSet);
+                    booksById.put(book.getBookId(), book);
+                }
+            } catch (Exception e) {
+                System.err.println("Error loading books: " + e.getMessage());
+            }
+        }
+
+        List<Book> books = new ArrayList<>();
+        for (int bookId : bookIds) {
+            Book book = booksById.get(bookId);
+            if (book != null) {
+                books.add(book);
+            }
+        }
         return books;
     }
 
@@ -59,93 +222,130 @@ public class BookManager {
         int pageCount = resultSet.getInt("page_count");
         double overallRating = resultSet.getDouble("average_rating");
         String synopsis = resultSet.getString("synopsis");
+        int reviewCount = resultSet.getInt("rating_count");
 
-        return new Book(bookId, title, author, publishedDate, pageCount, overallRating, synopsis);
+        return bookCache.refresh(new Book(bookId, title, author, publishedDate, pageCount, overallRating, synopsis, reviewCount));
     }
 
-    public List<String> loadGenres(int bookId) {
-        List<String> genres = new ArrayList<>();
-        String query = """
-        SELECT t.tag_name FROM tags t 
-        JOIN book_tags bt ON t.tag_name = bt.tag_name 
-        WHERE bt.book_id = ? AND t.tag_type = 'genre'
-    """;
+    public void hydrateBooks(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
 
-        try (Connection connection = dbHelper.connect();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+        Set<Integer> uniqueIds = new LinkedHashSet<>();
+        for (Book book : books) {
+            if (!book.isDetailsLoaded()) {
+                Book cached = bookCache.get(book.getBookId());
+                if (cached != null && cached != book && cached.isDetailsLoaded()) {
+                    book.setDetails(cached.getTagIds());
+                } else {
+                    uniqueIds.add(book.getBookId());
+                }
+            }
+        }
+        if (uniqueIds.isEmpty()) {
+            return;
+        }
+        List<Integer> bookIds = new ArrayList<>(uniqueIds);
+
+        Map<Integer, List<String>> tagsByBook = new HashMap<>();
+        boolean unknownTags = false;
+
+        try (Connection connection = dbHelper.connect()) {
+            for (int from = 0; from < bookIds.size(); from += HYDRATION_CHUNK_SIZE) {
+                List<Integer> chunk = bookIds.subList(from, Math.min(from + HYDRATION_CHUNK_SIZE, bookIds.size()));
+                String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+
+                String tagQuery = """
+                    SELECT book_id, tag_name
+                    FROM book_tags
+                    WHERE book_id IN (%s)
+                """.formatted(placeholders);
+
+                try (PreparedStatement preparedStatement = connection.prepareStatement(tagQuery)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        preparedStatement.setInt(i + 1, chunk.get(i));
+                    }
+                    ResultSet resultSet = preparedStatement.executeQuery();
+
+                    while (resultSet.next()) {
+                        String tagName = resultSet.getString("tag_name");
+                        unknownTags |= tagDictionary.idOf(tagName) < 0;
+                        tagsByBook.computeIfAbsent(resultSet.getInt("book_id"), id -> new ArrayList<>()).add(tagName);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading book details: " + e.getMessage());
+            return;
+        }
 
-            preparedStatement.setInt(1, bookId);
-            ResultSet resultSet = preparedStatement.executeQuery();
+        if (unknownTags) {
+            tagDictionary.reload();
+        }
 
-            while (resultSet.next()) {
-                genres.add(resultSet.getString("tag_name"));
+        for (Book book : books) {
+            int bookId = book.getBookId();
+            if (book.isDetailsLoaded()) {
+                continue;
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+            book.setDetails(tagDictionary.encode(tagsByBook.getOrDefault(bookId, List.of())));
+            bookCache.putIfAbsent(book);
         }
-        return genres;
     }
 
+    public List<String> loadGenres(int bookId) {
+        return tagDictionary.decode(loadTagIds(bookId), TagDictionary.GENRE);
+    }
 
+    private int[] loadTagIds(int bookId) {
+        List<String> tagNames = new ArrayList<>();
 
-    public List<String> getTagsByType(String type) {
-        List<String> tags = new ArrayList<>();
-        String query = "SELECT tag_name FROM tags WHERE tag_type = ? ORDER BY tag_name";
-        
         try (Connection connection = dbHelper.connect();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-    
-            preparedStatement.setString(1, type);
+             PreparedStatement preparedStatement = connection.prepareStatement(BOOK_TAGS_QUERY)) {
+
+            preparedStatement.setInt(1, bookId);
             ResultSet resultSet = preparedStatement.executeQuery();
-    
+
             while (resultSet.next()) {
-                tags.add(resultSet.getString("tag_name"));
+                tagNames.add(resultSet.getString("tag_name"));
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
-        
-        return tags;
+        return tagDictionary.encode(tagNames);
     }
 
-    public List<Book> getRecommendedBooksByTag(String tagName) {
-        List<Book> books = new ArrayList<>();
-        String query = """
-        SELECT b.* FROM books b
-        JOIN book_tags bt ON b.book_id = bt.book_id
-        JOIN tags t ON bt.tag_name = t.tag_name
-        WHERE t.tag_name = ?
-        ORDER BY b.average_rating DESC, b.book_id ASC
-    """;
 
+
+    public List<String> getTagsByType(String type) {
+        return tagDictionary.namesOfType(type);
+    }
+
+    public BookPage getRecommendedBooksByTag(String tagName, BookCursor after, int pageSize) {
         try (Connection connection = dbHelper.connect();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+             PreparedStatement preparedStatement = connection.prepareStatement(RECOMMENDED_BY_TAG_QUERY)) {
 
+            BigDecimal afterRating = after == null ? FIRST_PAGE_RATING : after.getAverageRating();
             preparedStatement.setString(1, tagName);
-            ResultSet resultSet = preparedStatement.executeQuery();
-
-            while (resultSet.next()) {
-                books.add(extractBookFromResultSet(resultSet));
-            }
+            preparedStatement.setBigDecimal(2, afterRating);
+            preparedStatement.setBigDecimal(3, afterRating);
+            preparedStatement.setInt(4, after == null ? 0 : after.getBookId());
+            preparedStatement.setInt(5, pageSize + 1);
+            return readPage(preparedStatement, pageSize);
         } catch (Exception e) {
             System.err.println("Error retrieving recommendations: " + e.getMessage());
         }
 
-        return books;
+        return new BookPage(new ArrayList<>(), null);
     }
 
 
     public List<Book> getReviewedBooks(int userId) {
         List<Book> reviewedBooks = new ArrayList<>();
-        String query = """
-            SELECT b.book_id, b.title, b.author, b.publication_date, b.page_count, b.synopsis, b.average_rating
-            FROM books b
-            JOIN reviews r ON b.book_id = r.book_id
-            WHERE r.user_id = ?
-        """;
 
         try (Connection conn = dbHelper.connect();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(REVIEWED_BOOKS_QUERY)) {
 
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
@@ -162,45 +362,7 @@ public class BookManager {
     }
 
     public List<String> getBookMoods(int bookId) {
-        List<String> moods = new ArrayList<>();
-        String query = """
-        SELECT t.tag_name FROM tags t
-        JOIN book_tags bt ON t.tag_name = bt.tag_name
-        WHERE bt.book_id = ? AND t.tag_type = 'mood';
-    """;
-
-        try (Connection connection = dbHelper.connect();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-
-            preparedStatement.setInt(1, bookId);
-            ResultSet resultSet = preparedStatement.executeQuery();
-
-            while (resultSet.next()) {
-                moods.add(resultSet.getString("tag_name"));
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return moods;
-    }
-
-    public int getRatingAndReviewCount(int bookId) {
-        int reviewCount = 0;
-        String query = "SELECT COUNT(*) AS review_count FROM reviews WHERE book_id = ?";
-
-        try (Connection connection = dbHelper.connect();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-
-            preparedStatement.setInt(1, bookId);
-            ResultSet resultSet = preparedStatement.executeQuery();
-
-            if (resultSet.next()) {
-                reviewCount = resultSet.getInt("review_count");
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return reviewCount;
+        return tagDictionary.decode(loadTagIds(bookId), TagDictionary.MOOD);
     }
 
 
@@ -220,6 +382,14 @@ public class BookManager {
             stmt.setString(1, newValue);
             stmt.setInt(2, bookId);
             stmt.executeUpdate();
+            bookCache.invalidate(bookId);
+            if (detailChoice == 1) {
+                searchIndex.updateBook(bookId, newValue, null);
+            } else if (detailChoice == 2) {
+                searchIndex.updateBook(bookId, null, newValue);
+            } else if (detailChoice == 4) {
+                statsStore.invalidateAll();
+            }
             System.out.println("Book updated successfully!");
         } catch (SQLException e) {
             System.out.println("Error updating book: " + e.getMessage());
@@ -229,11 +399,10 @@ public class BookManager {
     public void updateBookTagsInDatabase(int bookId, String tagType, List<String> tags) {
         try (Connection conn = dbHelper.connect()) {
             String deleteSql = """
-                DELETE bt
-                FROM book_tags bt
+                DELETE bt FROM book_tags bt
                 JOIN tags t ON bt.tag_name = t.tag_name
                 WHERE bt.book_id = ? AND t.tag_type = ?
-                """;
+            """;
             try (PreparedStatement deleteStmt = conn.prepareStatement(deleteSql)) {
                 deleteStmt.setInt(1, bookId);
                 deleteStmt.setString(2, tagType);
@@ -248,6 +417,10 @@ public class BookManager {
                 }
                 insertStmt.executeBatch();
             }
+            bookCache.invalidate(bookId);
+            if (tagType.equals(TagDictionary.GENRE)) {
+                statsStore.invalidateAll();
+            }
 
             System.out.println(tagType.substring(0, 1).toUpperCase() + tagType.substring(1) + "s updated successfully!");
         } catch (SQLException e) {
@@ -262,7 +435,12 @@ public class BookManager {
             PreparedStatement stmt = conn.prepareStatement(sql);
             stmt.setInt(1, bookId);
             int rowsAffected = stmt.executeUpdate();
+            bookCache.invalidate(bookId);
             if (rowsAffected > 0) {
+                searchIndex.removeBook(bookId);
+                sessions.forEachContext(context -> context.forgetBook(bookId));
+                statsStore.invalidateAll();
+                recommendations.ratingChanged(bookId);
                 System.out.println("\nBook deleted successfully!");
             } else {
                 System.out.println("No book found with the given ID.");
@@ -286,25 +464,35 @@ public class BookManager {
             bookStmt.executeUpdate();
 
             ResultSet generatedKeys = bookStmt.getGeneratedKeys();
+            int bookId;
+            boolean newTags = false;
             if (generatedKeys.next()) {
-                int bookId = generatedKeys.getInt(1);
+                bookId = generatedKeys.getInt(1);
 
                 String tagInsertSql = "INSERT IGNORE INTO tags (tag_name, tag_type) VALUES (?, ?)";
                 PreparedStatement tagStmt = conn.prepareStatement(tagInsertSql);
 
                 for (String genre : genres) {
-                    tagStmt.setString(1, genre);
-                    tagStmt.setString(2, "genre");
-                    tagStmt.addBatch();
+                    if (tagDictionary.idOf(genre) < 0) {
+                        tagStmt.setString(1, genre);
+                        tagStmt.setString(2, "genre");
+                        tagStmt.addBatch();
+                        newTags = true;
+                    }
                 }
 
                 for (String mood : moods) {
-                    tagStmt.setString(1, mood);
-                    tagStmt.setString(2, "mood");
-                    tagStmt.addBatch();
+                    if (tagDictionary.idOf(mood) < 0) {
+                        tagStmt.setString(1, mood);
+                        tagStmt.setString(2, "mood");
+                        tagStmt.addBatch();
+                        newTags = true;
+                    }
                 }
 
-                tagStmt.executeBatch();
+                if (newTags) {
+                    tagStmt.executeBatch();
+                }
 
                 String bookTagSql = "INSERT INTO book_tags (book_id, tag_name) VALUES (?, ?)";
                 PreparedStatement bookTagStmt = conn.prepareStatement(bookTagSql);
@@ -326,6 +514,11 @@ public class BookManager {
                 throw new SQLException("Failed to retrieve the generated book ID.");
             }
             conn.commit();
+            if (newTags) {
+                tagDictionary.reload();
+            }
+            bookCache.invalidate(bookId);
+            searchIndex.addBook(bookId, book.getTitle(), book.getAuthor());
             System.out.println("Book added successfully!");
         } catch (SQLException e) {
             System.out.println("Error adding book: " + e.getMessage());
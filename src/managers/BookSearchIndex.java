@@ -0,0 +1,433 @@
+package src.managers;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class BookSearchIndex {
+    private static final int TITLE_FIELD = 1;
+    private static final int AUTHOR_FIELD = 2;
+    private static final int GRAM_SIZE = 3;
+    private static final double EXACT_WEIGHT = 3.0;
+    private static final double PREFIX_WEIGHT = 2.0;
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final int MAX_PREFIX_TOKENS = Integer.getInteger("plotpoint.search.maxPrefixTokens", 64);
+    private static final int MAX_PREFIX_CANDIDATES = Integer.getInteger("plotpoint.search.maxPrefixCandidates", 2_000);
+    private static final long BUILD_RETRY_INTERVAL_MILLIS = 30_000;
+
+    private static final BookSearchIndex instance = new BookSearchIndex();
+
+    private final DatabaseHelper dbHelper = new DatabaseHelper();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, IndexedBook> books = new HashMap<>();
+    private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+    private final Map<String, Set<String>> tokensByGram = new HashMap<>();
+    private final TrieNode trie = new TrieNode();
+    private volatile boolean built;
+    private final AtomicBoolean building = new AtomicBoolean();
+    private volatile long lastBuildAttempt;
+
+    private BookSearchIndex() {}
+
+    public static BookSearchIndex getInstance() {
+        return instance;
+    }
+
+    public void build() {
+        String query = "SELECT book_id, title, author FROM books";
+
+        lock.writeLock().lock();
+        try (Connection connection = dbHelper.connect();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+
+            books.clear();
+            postings.clear();
+            tokensByGram.clear();
+            trie.children.clear();
+
+            ResultSet resultSet = preparedStatement.executeQuery();
+            while (resultSet.next()) {
+                index(resultSet.getInt("book_id"), resultSet.getString("title"), resultSet.getString("author"));
+            }
+            built = true;
+        } catch (Exception e) {
+            System.err.println("Error building the book search index: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    public void buildInBackground() {
+        if (built || System.currentTimeMillis() - lastBuildAttempt < BUILD_RETRY_INTERVAL_MILLIS
+                || !building.compareAndSet(false, true)) {
+            return;
+        }
+        lastBuildAttempt = System.currentTimeMillis();
+        Thread builder = new Thread(() -> {
+            try {
+                ensureBuilt();
+            } finally {
+                building.set(false);
+            }
+        }, "plotpoint-search-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            synchronized (this) {
+                if (!built) {
+                    build();
+                }
+            }
+        }
+    }
+
+    public void addBook(int bookId, String title, String author) {
+        lock.writeLock().lock();
+        try {
+            unindex(bookId);
+            index(bookId, title, author);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateBook(int bookId, String title, String author) {
+        lock.writeLock().lock();
+        try {
+            IndexedBook current = books.get(bookId);
+            if (current == null) {
+                return;
+            }
+            unindex(bookId);
+            index(bookId, title != null ? title : current.title, author != null ? author : current.author);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(int bookId) {
+        lock.writeLock().lock();
+        try {
+            unindex(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Integer> search(String query, int limit) {
+        if (!built) {
+            buildInBackground();
+            return new ArrayList<>();
+        }
+        List<String> queryTokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = null;
+            for (String queryToken : queryTokens) {
+                Map<Integer, Double> tokenScores = scoreToken(queryToken, queryTokens.size() == 1 ? limit : Integer.MAX_VALUE);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((bookId, score) -> score + tokenScores.get(bookId));
+                }
+                if (scores.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+
+            List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort((a, b) -> {
+                int byScore = Double.compare(b.getValue(), a.getValue());
+                return byScore != 0 ? byScore : books.get(a.getKey()).title.compareToIgnoreCase(books.get(b.getKey()).title);
+            });
+
+            List<Integer> bookIds = new ArrayList<>();
+            for (int i = 0; i < Math.min(limit, ranked.size()); i++) {
+                bookIds.add(ranked.get(i).getKey());
+            }
+            return bookIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Double> scoreToken(String queryToken, int limit) {
+        Map<Integer, Double> scores = new HashMap<>();
+
+        addMatches(scores, queryToken, EXACT_WEIGHT);
+
+        TrieNode node = trie.find(queryToken);
+        if (node != null && !exactTitleMatchesFill(scores, limit)) {
+            for (String token : node.collectTokens(queryToken, MAX_PREFIX_TOKENS)) {
+                if (scores.size() >= MAX_PREFIX_CANDIDATES) {
+                    break;
+                }
+                if (!token.equals(queryToken)) {
+                    addMatches(scores, token, PREFIX_WEIGHT, MAX_PREFIX_CANDIDATES);
+                }
+            }
+        }
+
+        if (scores.isEmpty()) {
+            for (Map.Entry<String, Integer> candidate : fuzzyCandidates(queryToken).entrySet()) {
+                addMatches(scores, candidate.getKey(), 1.0 / (1 + candidate.getValue()));
+            }
+        }
+        return scores;
+    }
+
+    private static boolean exactTitleMatchesFill(Map<Integer, Double> scores, int limit) {
+        if (scores.size() < limit) {
+            return false;
+        }
+        int certain = 0;
+        for (double score : scores.values()) {
+            if (score > PREFIX_WEIGHT * TITLE_WEIGHT && ++certain >= limit) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addMatches(Map<Integer, Double> scores, String token, double weight) {
+        addMatches(scores, token, weight, Integer.MAX_VALUE);
+    }
+
+    private void addMatches(Map<Integer, Double> scores, String token, double weight, int maxCandidates) {
+        Map<Integer, Integer> tokenPostings = postings.get(token);
+        if (tokenPostings == null) {
+            return;
+        }
+        for (Map.Entry<Integer, Integer> posting : tokenPostings.entrySet()) {
+            if (scores.size() >= maxCandidates) {
+                return;
+            }
+            double fieldWeight = (posting.getValue() & TITLE_FIELD) != 0 ? TITLE_WEIGHT : 1.0;
+            scores.merge(posting.getKey(), weight * fieldWeight, Math::max);
+        }
+    }
+
+    private Map<String, Integer> fuzzyCandidates(String queryToken) {
+        int maxEdits = queryToken.length() <= 4 ? 1 : 2;
+        Set<String> queryGrams = grams(queryToken);
+        int minSharedGrams = Math.max(1, queryGrams.size() - GRAM_SIZE * maxEdits);
+
+        Map<String, Integer> sharedGrams = new HashMap<>();
+        for (String gram : queryGrams) {
+            for (String token : tokensByGram.getOrDefault(gram, Set.of())) {
+                sharedGrams.merge(token, 1, Integer::sum);
+            }
+        }
+
+        Map<String, Integer> candidates = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : sharedGrams.entrySet()) {
+            if (entry.getValue() >= minSharedGrams) {
+                int distance = editDistance(queryToken, entry.getKey(), maxEdits);
+                if (distance <= maxEdits) {
+                    candidates.put(entry.getKey(), distance);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private void index(int bookId, String title, String author) {
+        IndexedBook book = new IndexedBook(title, author);
+        books.put(bookId, book);
+        addPostings(bookId, tokenize(title), TITLE_FIELD, book);
+        addPostings(bookId, tokenize(author), AUTHOR_FIELD, book);
+    }
+
+    private void addPostings(int bookId, List<String> tokens, int field, IndexedBook book) {
+        for (String token : tokens) {
+            book.tokens.add(token);
+            Map<Integer, Integer> tokenPostings = postings.get(token);
+            if (tokenPostings == null) {
+                tokenPostings = new HashMap<>();
+                postings.put(token, tokenPostings);
+                trie.insert(token);
+                for (String gram : grams(token)) {
+                    tokensByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(token);
+                }
+            }
+            tokenPostings.merge(bookId, field, (a, b) -> a | b);
+        }
+    }
+
+    private void unindex(int bookId) {
+        IndexedBook book = books.remove(bookId);
+        if (book == null) {
+            return;
+        }
+        for (String token : book.tokens) {
+            Map<Integer, Integer> tokenPostings = postings.get(token);
+            if (tokenPostings == null) {
+                continue;
+            }
+            tokenPostings.remove(bookId);
+            if (tokenPostings.isEmpty()) {
+                postings.remove(token);
+                trie.remove(token);
+                for (String gram : grams(token)) {
+                    Set<String> gramTokens = tokensByGram.get(gram);
+                    if (gramTokens != null) {
+                        gramTokens.remove(token);
+                        if (gramTokens.isEmpty()) {
+                            tokensByGram.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        for (String token : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> grams(String token) {
+        String padded = "$" + token + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM_SIZE));
+        }
+        if (grams.isEmpty()) {
+            grams.add(padded);
+        }
+        return grams;
+    }
+
+    private static int editDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static class IndexedBook {
+        private final String title;
+        private final String author;
+        private final Set<String> tokens = new HashSet<>();
+
+        private IndexedBook(String title, String author) {
+            this.title = title;
+            this.author = author;
+        }
+    }
+
+    private static class TrieNode {
+        private final Map<Character, TrieNode> children = new TreeMap<>();
+        private boolean terminal;
+
+        private void insert(String token) {
+            TrieNode node = this;
+            for (char c : token.toCharArray()) {
+                node = node.children.computeIfAbsent(c, k -> new TrieNode());
+            }
+            node.terminal = true;
+        }
+
+        private TrieNode find(String prefix) {
+            TrieNode node = this;
+            for (char c : prefix.toCharArray()) {
+                node = node.children.get(c);
+                if (node == null) {
+                    return null;
+                }
+            }
+            return node;
+        }
+
+        private boolean remove(String token) {
+            return remove(token, 0);
+        }
+
+        private boolean remove(String token, int depth) {
+            if (depth == token.length()) {
+                terminal = false;
+            } else {
+                TrieNode child = children.get(token.charAt(depth));
+                if (child != null && child.remove(token, depth + 1)) {
+                    children.remove(token.charAt(depth));
+                }
+            }
+            return !terminal && children.isEmpty();
+        }
+
+        private List<String> collectTokens(String prefix, int maxTokens) {
+            List<String> tokens = new ArrayList<>();
+            ArrayDeque<TrieNode> nodes = new ArrayDeque<>();
+            ArrayDeque<String> prefixes = new ArrayDeque<>();
+            nodes.add(this);
+            prefixes.add(prefix);
+            while (!nodes.isEmpty() && tokens.size() < maxTokens) {
+                TrieNode node = nodes.poll();
+                String nodePrefix = prefixes.poll();
+                if (node.terminal) {
+                    tokens.add(nodePrefix);
+                }
+                for (Map.Entry<Character, TrieNode> child : node.children.entrySet()) {
+                    nodes.add(child.getValue());
+                    prefixes.add(nodePrefix + child.getKey());
+                }
+            }
+            return tokens;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package src.managers;
+import src.util.JsonWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CatalogExporter {
+    public static final String JSONL = "jsonl";
+    public static final String CSV = "csv";
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final long PROGRESS_INTERVAL = 100_000;
+    private static final int NET_WRITE_TIMEOUT_SECONDS = 600;
+
+    private final TagDictionary tagDictionary = TagDictionary.getInstance();
+
+    public long exportAll(Path directory, String format) throws IOException, SQLException {
+        if (!format.equals(JSONL) && !format.equals(CSV)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        Files.createDirectories(directory);
+        long rows = exportBooks(directory.resolve("books." + format), format);
+        rows += exportReviews(directory.resolve("reviews." + format), format);
+        rows += exportShelves(directory.resolve("shelves." + format), format);
+        return rows;
+    }
+
+    public long exportBooks(Path file, String format) throws IOException, SQLException {
+        String bookQuery = """
+            SELECT book_id, title, author, publication_date, page_count, synopsis, average_rating, rating_count
+            FROM books
+            ORDER BY book_id
+        """;
+        String tagQuery = "SELECT book_id, tag_name FROM book_tags ORDER BY book_id, tag_name";
+        String[] columns = {"book_id", "title", "author", "publication_date", "page_count", "synopsis",
+                "average_rating", "rating_count", "genres", "moods"};
+
+        try (Connection bookConnection = openStreamingConnection();
+             Connection tagConnection = openStreamingConnection();
+             PreparedStatement bookStmt = streaming(bookConnection, bookQuery);
+             PreparedStatement tagStmt = streaming(tagConnection, tagQuery);
+             RecordWriter out = open(file, format, columns)) {
+
+            ResultSet books = bookStmt.executeQuery();
+            ResultSet tags = tagStmt.executeQuery();
+            boolean hasTag = tags.next();
+            long rows = 0;
+
+            while (books.next()) {
+                int bookId = books.getInt("book_id");
+                List<String> genres = new ArrayList<>();
+                List<String> moods = new ArrayList<>();
+
+                while (hasTag && tags.getInt("book_id") < bookId) {
+                    hasTag = tags.next();
+                }
+                while (hasTag && tags.getInt("book_id") == bookId) {
+                    String tagName = tags.getString("tag_name");
+                    int tagId = tagDictionary.idOf(tagName);
+                    if (tagId >= 0 && tagDictionary.typeOf(tagId).equals(TagDictionary.MOOD)) {
+                        moods.add(tagName);
+                    } else {
+                        genres.add(tagName);
+                    }
+                    hasTag = tags.next();
+                }
+
+                out.write(bookId, books.getString("title"), books.getString("author"), books.getString("publication_date"),
+                        books.getObject("page_count"), books.getString("synopsis"), books.getBigDecimal("average_rating"),
+                        books.getInt("rating_count"), genres, moods);
+                reportProgress(file, ++rows);
+            }
+            out.commit();
+            System.out.printf("Exported %,d books to %s%n", rows, file);
+            return rows;
+        }
+    }
+
+    public long exportReviews(Path file, String format) throws IOException, SQLException {
+        String query = """
+            SELECT r.review_id, r.book_id, r.user_id, u.username, r.rating, r.review_text, r.date
+            FROM reviews r
+            JOIN users u ON r.user_id = u.user_id
+        """;
+        String[] columns = {"review_id", "book_id", "user_id", "username", "rating", "review_text", "date"};
+        return exportQuery(file, format, query, columns, "reviews");
+    }
+
+    public long exportShelves(Path file, String format) throws IOException, SQLException {
+        String query = """
+            SELECT sb.user_id, u.username, s.shelf_name, sb.book_id, sb.date_added
+            FROM shelf_books sb
+            JOIN shelves s ON sb.shelf_id = s.shelf_id
+            JOIN users u ON sb.user_id = u.user_id
+        """;
+        String[] columns = {"user_id", "username", "shelf_name", "book_id", "date_added"};
+        return exportQuery(file, format, query, columns, "shelved books");
+    }
+
+    private long exportQuery(Path file, String format, String query, String[] columns, String label) throws IOException, SQLException {
+        try (Connection connection = openStreamingConnection();
+             PreparedStatement preparedStatement = streaming(connection, query);
+             RecordWriter out = open(file, format, columns)) {
+
+            ResultSet resultSet = preparedStatement.executeQuery();
+            Object[] values = new Object[columns.length];
+            long rows = 0;
+            while (resultSet.next()) {
+                for (int i = 0; i < columns.length; i++) {
+                    Object value = resultSet.getObject(i + 1);
+                    values[i] = value instanceof Number ? value : resultSet.getString(i + 1);
+                }
+                out.write(values);
+                reportProgress(file, ++rows);
+            }
+            out.commit();
+            System.out.printf("Exported %,d %s to %s%n", rows, label, file);
+            return rows;
+        }
+    }
+
+    private Connection openStreamingConnection() throws SQLException {
+        Connection connection = DatabaseHelper.openBulkConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET SESSION net_write_timeout = " + NET_WRITE_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    private static PreparedStatement streaming(Connection connection, String query) throws SQLException {
+        PreparedStatement preparedStatement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        preparedStatement.setFetchSize(Integer.MIN_VALUE);
+        return preparedStatement;
+    }
+
+    private static void reportProgress(Path file, long rows) {
+        if (rows % PROGRESS_INTERVAL == 0) {
+            System.out.printf("  %,d rows written to %s...%n", rows, file.getFileName());
+        }
+    }
+
+    private static RecordWriter open(Path file, String format, String[] columns) throws IOException {
+        return format.equals(CSV) ? new CsvRecordWriter(file, columns) : new JsonRecordWriter(file, columns);
+    }
+
+    private abstract static class RecordWriter implements AutoCloseable {
+        protected final Writer out;
+        private final Path file;
+        private final Path temp;
+        private boolean committed;
+
+        private RecordWriter(Path file) throws IOException {
+            this.file = file;
+            this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+            FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        }
+
+        abstract void write(Object... values) throws IOException;
+
+        void commit() throws IOException {
+            out.close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private static class JsonRecordWriter extends RecordWriter {
+        private final String[] columns;
+        private final JsonWriter json;
+
+        private JsonRecordWriter(Path file, String[] columns) throws IOException {
+            super(file);
+            this.columns = columns;
+            this.json = new JsonWriter(out);
+        }
+
+        @Override
+        void write(Object... values) throws IOException {
+            json.beginObject();
+            for (int i = 0; i < columns.length; i++) {
+                json.name(columns[i]);
+                Object value = values[i];
+                if (value instanceof List<?> items) {
+                    json.beginArray();
+                    for (Object item : items) {
+                        json.value(String.valueOf(item));
+                    }
+                    json.endArray();
+                } else if (value instanceof Number number) {
+                    json.rawNumber(number.toString());
+                } else {
+                    json.value(value == null ? null : value.toString());
+                }
+            }
+            json.endObject();
+            out.write('\n');
+        }
+    }
+
+    private static class CsvRecordWriter extends RecordWriter {
+        private CsvRecordWriter(Path file, String[] columns) throws IOException {
+            super(file);
+            write((Object[]) columns);
+        }
+
+        @Override
+        void write(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                Object value = values[i];
+                String text = value instanceof List<?> items ? String.join("|", items.stream().map(String::valueOf).toList())
+                        : value == null ? "" : value.toString();
+                if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                    out.write('"');
+                    out.write(text.replace("\"", "\"\""));
+                    out.write('"');
+                } else {
+                    out.write(text);
+                }
+            }
+            out.write('\n');
+        }
+    }
+}
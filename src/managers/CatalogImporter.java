@@ -0,0 +1,515 @@
+package src.managers;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public class CatalogImporter {
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_AUTHOR_LENGTH = 100;
+    private static final int MAX_TAG_LENGTH = 30;
+    private static final int MAX_REPORTED_REJECTS = 20;
+
+    private final int chunkSize = Integer.getInteger("plotpoint.import.chunkSize", 5_000);
+    private final TagDictionary tagDictionary = TagDictionary.getInstance();
+    private final BookSearchIndex searchIndex = BookSearchIndex.getInstance();
+    private final BookCache bookCache = BookCache.getInstance();
+    private final Set<String> knownTags = new HashSet<>();
+
+    public ImportResult importFile(Path file) throws IOException, SQLException {
+        String source = file.getFileName() + ":" + Files.size(file);
+        boolean jsonLines = file.getFileName().toString().toLowerCase().endsWith(".jsonl");
+
+        try (Connection connection = DatabaseHelper.openBulkConnection();
+             BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            connection.setAutoCommit(false);
+            long[] checkpoint = loadCheckpoint(connection, source);
+            ImportResult result = new ImportResult(checkpoint[0], checkpoint[1]);
+            if (result.recordsDone > 0) {
+                System.out.printf("Resuming %s after %,d records (%,d books already imported).%n",
+                        file.getFileName(), result.recordsDone, result.booksImported);
+            }
+
+            RecordReader records = jsonLines ? new JsonLinesReader(reader) : new CsvReader(reader);
+            long skipped = 0;
+            while (skipped < result.recordsDone && records.next() != null) {
+                skipped++;
+            }
+
+            long startedAt = System.nanoTime();
+            long importedThisRun = 0;
+            List<ImportedBook> chunk = new ArrayList<>(chunkSize);
+            long recordsInChunk = 0;
+            Map<String, String> record;
+
+            while ((record = records.next()) != null) {
+                recordsInChunk++;
+                ImportedBook book = toBook(record);
+                if (book == null) {
+                    result.reject(result.recordsDone + recordsInChunk, record);
+                } else {
+                    chunk.add(book);
+                }
+
+                if (recordsInChunk == chunkSize) {
+                    importedThisRun += writeChunk(connection, source, chunk, result, recordsInChunk);
+                    reportProgress(result, importedThisRun, startedAt);
+                    chunk.clear();
+                    recordsInChunk = 0;
+                }
+            }
+            if (recordsInChunk > 0) {
+                importedThisRun += writeChunk(connection, source, chunk, result, recordsInChunk);
+                reportProgress(result, importedThisRun, startedAt);
+            }
+            return result;
+        } finally {
+            bookCache.invalidateAll();
+            tagDictionary.reload();
+        }
+    }
+
+    private long writeChunk(Connection connection, String source, List<ImportedBook> chunk, ImportResult result,
+                            long recordsInChunk) throws SQLException {
+        try {
+            Set<String> newTags = insertNewTags(connection, chunk);
+            int[] bookIds = chunk.isEmpty() ? new int[0] : insertBooks(connection, chunk);
+            insertBookTags(connection, chunk, bookIds);
+            saveCheckpoint(connection, source, result.recordsDone + recordsInChunk, result.booksImported + chunk.size());
+            connection.commit();
+            knownTags.addAll(newTags);
+            bookCache.invalidateAll();
+
+            if (searchIndex.isBuilt()) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    searchIndex.addBook(bookIds[i], chunk.get(i).title, chunk.get(i).author);
+                }
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Import failed after " + result.recordsDone + " records: " + e.getMessage(), e);
+        }
+
+        result.recordsDone += recordsInChunk;
+        result.booksImported += chunk.size();
+        return chunk.size();
+    }
+
+    private Set<String> insertNewTags(Connection connection, List<ImportedBook> chunk) throws SQLException {
+        Map<String, ImportedTag> newTags = new HashMap<>();
+        for (ImportedBook book : chunk) {
+            for (Map.Entry<String, ImportedTag> tag : book.tags.entrySet()) {
+                if (!knownTags.contains(tag.getKey()) && tagDictionary.idOf(tag.getKey()) < 0) {
+                    newTags.putIfAbsent(tag.getKey(), tag.getValue());
+                }
+            }
+        }
+        if (newTags.isEmpty()) {
+            return Set.of();
+        }
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement("INSERT IGNORE INTO tags (tag_name, tag_type) VALUES (?, ?)")) {
+            for (ImportedTag tag : newTags.values()) {
+                preparedStatement.setString(1, tag.name);
+                preparedStatement.setString(2, tag.type);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        }
+        return newTags.keySet();
+    }
+
+    private int[] insertBooks(Connection connection, List<ImportedBook> chunk) throws SQLException {
+        String query = "INSERT INTO books (title, author, publication_date, page_count, synopsis) VALUES (?, ?, ?, ?, ?)";
+        int[] bookIds = new int[chunk.size()];
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            for (ImportedBook book : chunk) {
+                preparedStatement.setString(1, book.title);
+                preparedStatement.setString(2, book.author);
+                preparedStatement.setObject(3, book.publishedDate);
+                preparedStatement.setObject(4, book.pageCount);
+                preparedStatement.setString(5, book.synopsis);
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+
+            ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
+            int count = 0;
+            while (generatedKeys.next() && count < bookIds.length) {
+                bookIds[count++] = generatedKeys.getInt(1);
+            }
+            if (count != bookIds.length) {
+                throw new SQLException("Expected " + bookIds.length + " generated book IDs but received " + count + ".");
+            }
+        }
+        return bookIds;
+    }
+
+    private void insertBookTags(Connection connection, List<ImportedBook> chunk, int[] bookIds) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement("INSERT INTO book_tags (book_id, tag_name) VALUES (?, ?)")) {
+            for (int i = 0; i < chunk.size(); i++) {
+                for (ImportedTag tag : chunk.get(i).tags.values()) {
+                    preparedStatement.setInt(1, bookIds[i]);
+                    preparedStatement.setString(2, tag.name);
+                    preparedStatement.addBatch();
+                }
+            }
+            preparedStatement.executeBatch();
+        }
+    }
+
+    private long[] loadCheckpoint(Connection connection, String source) throws SQLException {
+        String query = "SELECT records_done, books_imported FROM import_checkpoints WHERE source = ?";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setString(1, source);
+            ResultSet resultSet = preparedStatement.executeQuery();
+            if (resultSet.next()) {
+                return new long[]{resultSet.getLong("records_done"), resultSet.getLong("books_imported")};
+            }
+        }
+        return new long[]{0, 0};
+    }
+
+    private void saveCheckpoint(Connection connection, String source, long recordsDone, long booksImported) throws SQLException {
+        String query = """
+            INSERT INTO import_checkpoints (source, records_done, books_imported) VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE records_done = VALUES(records_done), books_imported = VALUES(books_imported)
+        """;
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setString(1, source);
+            preparedStatement.setLong(2, recordsDone);
+            preparedStatement.setLong(3, booksImported);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    private void reportProgress(ImportResult result, long importedThisRun, long startedAt) {
+        double seconds = Math.max((System.nanoTime() - startedAt) / 1e9, 0.001);
+        System.out.printf("  %,d records read, %,d books imported, %,d rejected (%,.0f books/s)%n",
+                result.recordsDone, result.booksImported, result.rejected, importedThisRun / seconds);
+    }
+
+    private ImportedBook toBook(Map<String, String> record) {
+        String title = trimmed(record.get("title"));
+        String author = trimmed(record.get("author"));
+        if (title == null || author == null || title.length() > MAX_TITLE_LENGTH || author.length() > MAX_AUTHOR_LENGTH) {
+            return null;
+        }
+
+        ImportedBook book = new ImportedBook(title, author);
+        String publishedDate = trimmed(record.get("publication_date"));
+        String pageCount = trimmed(record.get("page_count"));
+        try {
+            book.publishedDate = publishedDate == null ? null : LocalDate.parse(publishedDate);
+            book.pageCount = pageCount == null ? null : Integer.parseInt(pageCount);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+        book.synopsis = trimmed(record.get("synopsis"));
+
+        if (!addTags(book, record.get("genres"), TagDictionary.GENRE) || !addTags(book, record.get("moods"), TagDictionary.MOOD)) {
+            return null;
+        }
+        return book;
+    }
+
+    private boolean addTags(ImportedBook book, String tags, String type) {
+        if (tags == null) {
+            return true;
+        }
+        for (String tag : tags.split("[|;]")) {
+            String tagName = tag.trim();
+            if (tagName.isEmpty()) {
+                continue;
+            }
+            if (tagName.length() > MAX_TAG_LENGTH) {
+                return false;
+            }
+            book.tags.putIfAbsent(tagName.toLowerCase(Locale.ROOT), new ImportedTag(tagName.intern(), type));
+        }
+        return true;
+    }
+
+    private static String trimmed(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    public static class ImportResult {
+        private long recordsDone;
+        private long booksImported;
+        private long rejected;
+
+        private ImportResult(long recordsDone, long booksImported) {
+            this.recordsDone = recordsDone;
+            this.booksImported = booksImported;
+        }
+
+        private void reject(long recordNumber, Map<String, String> record) {
+            rejected++;
+            if (rejected <= MAX_REPORTED_REJECTS) {
+                System.err.println("Skipping invalid record " + recordNumber + ": " + record);
+            }
+        }
+
+        public long getRecordsDone() {
+            return recordsDone;
+        }
+
+        public long getBooksImported() {
+            return booksImported;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+    }
+
+    private static class ImportedBook {
+        private final String title;
+        private final String author;
+        private LocalDate publishedDate;
+        private Integer pageCount;
+        private String synopsis;
+        private final Map<String, ImportedTag> tags = new HashMap<>();
+
+        private ImportedBook(String title, String author) {
+            this.title = title;
+            this.author = author;
+        }
+    }
+
+    private static class ImportedTag {
+        private final String name;
+        private final String type;
+
+        private ImportedTag(String name, String type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+
+    private interface RecordReader {
+        Map<String, String> next() throws IOException;
+    }
+
+    private static class CsvReader implements RecordReader {
+        private final BufferedReader reader;
+        private List<String> header;
+
+        private CsvReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (header == null) {
+                List<String> names = readRow();
+                if (names == null) {
+                    return null;
+                }
+                header = new ArrayList<>();
+                for (String name : names) {
+                    header.add(name.trim().toLowerCase());
+                }
+            }
+
+            List<String> row;
+            do {
+                row = readRow();
+            } while (row != null && row.size() == 1 && row.get(0).isEmpty());
+            if (row == null) {
+                return null;
+            }
+
+            Map<String, String> record = new HashMap<>();
+            for (int i = 0; i < header.size() && i < row.size(); i++) {
+                record.put(header.get(i), row.get(i));
+            }
+            return record;
+        }
+
+        private List<String> readRow() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int following = reader.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    private static class JsonLinesReader implements RecordReader {
+        private final BufferedReader reader;
+        private String line;
+        private int position;
+
+        private JsonLinesReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+
+            position = 0;
+            Map<String, String> record = new HashMap<>();
+            try {
+                expect('{');
+                if (peek() != '}') {
+                    do {
+                        String name = readString();
+                        expect(':');
+                        record.put(name.toLowerCase(), readValue());
+                    } while (consume(','));
+                }
+                expect('}');
+            } catch (IllegalArgumentException e) {
+                record.clear();
+                record.put("error", e.getMessage());
+            }
+            return record;
+        }
+
+        private String readValue() {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            if (c == '[') {
+                position++;
+                Set<String> items = new LinkedHashSet<>();
+                if (peek() != ']') {
+                    do {
+                        String item = readValue();
+                        if (item != null) {
+                            items.add(item);
+                        }
+                    } while (consume(','));
+                }
+                expect(']');
+                return String.join("|", items);
+            }
+            int start = position;
+            while (position < line.length() && ",}] \t".indexOf(line.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = line.substring(start, position);
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder text = new StringBuilder();
+            while (position < line.length()) {
+                char c = line.charAt(position++);
+                if (c == '"') {
+                    return text.toString();
+                }
+                if (c != '\\') {
+                    text.append(c);
+                    continue;
+                }
+                if (position >= line.length()) {
+                    break;
+                }
+                char escaped = line.charAt(position++);
+                switch (escaped) {
+                    case 'n' -> text.append('\n');
+                    case 't' -> text.append('\t');
+                    case 'r' -> text.append('\r');
+                    case 'b' -> text.append('\b');
+                    case 'f' -> text.append('\f');
+                    case 'u' -> {
+                        if (position + 4 > line.length()) {
+                            throw new IllegalArgumentException("truncated unicode escape at column " + position);
+                        }
+                        text.append((char) Integer.parseInt(line.substring(position, position + 4), 16));
+                        position += 4;
+                    }
+                    default -> text.append(escaped);
+                }
+            }
+            throw new IllegalArgumentException("unterminated string");
+        }
+
+        private char peek() {
+            while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+            if (position >= line.length()) {
+                throw new IllegalArgumentException("unexpected end of line");
+            }
+            return line.charAt(position);
+        }
+
+        private boolean consume(char expected) {
+            if (position < line.length() && peek() == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw new IllegalArgumentException("expected '" + expected + "' at column " + (position + 1));
+            }
+            position++;
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package src.managers;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConnectionPool {
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 5_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final long borrowTimeoutMillis;
+    private final boolean captureBorrowSite;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private int totalConnections;
+    private boolean closed;
+    private ScheduledExecutorService housekeeper;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionsClosed = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long idleTimeoutMillis, long leakThresholdMillis, long borrowTimeoutMillis,
+                          boolean captureBorrowSite) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min " + minSize + ", max " + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.captureBorrowSite = captureBorrowSite;
+    }
+
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        startHousekeeping();
+
+        while (true) {
+            PooledConnection pooled = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (pooled == null && !create) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed.");
+                    }
+                    pooled = idle.pollFirst();
+                    if (pooled == null && totalConnections < maxSize) {
+                        totalConnections++;
+                        create = true;
+                    } else if (pooled == null) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            borrowTimeouts.incrementAndGet();
+                            throw new SQLException("Timed out after " + borrowTimeoutMillis
+                                    + " ms waiting for a database connection (pool size " + maxSize + ").");
+                        }
+                        released.awaitNanos(remaining);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection.", e);
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                pooled = openConnection();
+            } else if (!isUsable(pooled)) {
+                validationFailures.incrementAndGet();
+                discard(pooled);
+                continue;
+            }
+
+            recordWait(System.nanoTime() - start);
+            return pooled.lease();
+        }
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        try {
+            PooledConnection pooled = new PooledConnection(DriverManager.getConnection(url, user, password));
+            connectionsCreated.incrementAndGet();
+            return pooled;
+        } catch (SQLException e) {
+            lock.lock();
+            try {
+                totalConnections--;
+                released.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pooled.lastUsed);
+            return idleMillis < VALIDATION_BYPASS_MILLIS || pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private void giveBack(PooledConnection pooled) {
+        active.remove(pooled);
+        boolean healthy = pooled.reset();
+
+        lock.lock();
+        try {
+            if (healthy && !closed) {
+                pooled.lastUsed = System.nanoTime();
+                idle.addFirst(pooled);
+                released.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(pooled);
+    }
+
+    private void discard(PooledConnection pooled) {
+        closeQuietly(pooled.physical);
+        lock.lock();
+        try {
+            totalConnections--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+        connectionsClosed.incrementAndGet();
+    }
+
+    private synchronized void startHousekeeping() {
+        if (housekeeper != null || closed) {
+            return;
+        }
+        housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "plotpoint-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void housekeep() {
+        evictIdleConnections();
+        detectLeaks();
+        fillToMinimum();
+    }
+
+    private void evictIdleConnections() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && totalConnections - evicted.size() > minSize) {
+                PooledConnection pooled = oldestFirst.next();
+                if (TimeUnit.NANOSECONDS.toMillis(now - pooled.lastUsed) >= idleTimeoutMillis) {
+                    oldestFirst.remove();
+                    evicted.add(pooled);
+                }
+            }
+            totalConnections -= evicted.size();
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pooled : evicted) {
+            closeQuietly(pooled.physical);
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakThresholdMillis <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (PooledConnection pooled : active) {
+            if (!pooled.leakReported && TimeUnit.NANOSECONDS.toMillis(now - pooled.borrowedAt) >= leakThresholdMillis) {
+                pooled.leakReported = true;
+                leaksDetected.incrementAndGet();
+                Throwable borrowSite = pooled.borrowSite;
+                if (borrowSite != null) {
+                    System.err.println("Possible connection leak: connection held for more than " + leakThresholdMillis
+                            + " ms without being closed. Borrowed at:");
+                    borrowSite.printStackTrace();
+                } else {
+                    System.err.println("Possible connection leak: connection held for more than " + leakThresholdMillis
+                            + " ms without being closed. Run with -Dplotpoint.pool.captureBorrowSite=true to see where it was borrowed.");
+                }
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || totalConnections >= minSize) {
+                    return;
+                }
+                totalConnections++;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                PooledConnection pooled = openConnection();
+                lock.lock();
+                try {
+                    pooled.lastUsed = System.nanoTime();
+                    idle.addLast(pooled);
+                    released.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException e) {
+                return;
+            }
+        }
+    }
+
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            totalConnections -= idle.size();
+            idle.clear();
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        synchronized (this) {
+            if (housekeeper != null) {
+                housekeeper.shutdownNow();
+            }
+        }
+        for (PooledConnection pooled : toClose) {
+            closeQuietly(pooled.physical);
+        }
+    }
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getTotalCount() {
+        lock.lock();
+        try {
+            return totalConnections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    public double getAverageBorrowWaitMillis() {
+        long borrows = borrowCount.get();
+        return borrows == 0 ? 0 : totalWaitNanos.get() / (double) borrows / 1_000_000;
+    }
+
+    public double getMaxBorrowWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    public long getConnectionsCreated() {
+        return connectionsCreated.get();
+    }
+
+    public long getConnectionsClosed() {
+        return connectionsClosed.get();
+    }
+
+    public long getValidationFailures() {
+        return validationFailures.get();
+    }
+
+    public long getBorrowTimeouts() {
+        return borrowTimeouts.get();
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool[active=%d, idle=%d, total=%d/%d, borrows=%d, avgWait=%.3fms, maxWait=%.3fms, "
+                        + "created=%d, closed=%d, validationFailures=%d, timeouts=%d, leaks=%d]",
+                getActiveCount(), getIdleCount(), getTotalCount(), maxSize, getBorrowCount(),
+                getAverageBorrowWaitMillis(), getMaxBorrowWaitMillis(), getConnectionsCreated(),
+                getConnectionsClosed(), getValidationFailures(), getBorrowTimeouts(), getLeaksDetected());
+    }
+
+    private class PooledConnection {
+        private final Connection physical;
+        private final List<Statement> openStatements = new ArrayList<>();
+        private volatile long lastUsed = System.nanoTime();
+        private volatile long borrowedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        private Connection lease() {
+            borrowedAt = System.nanoTime();
+            borrowSite = captureBorrowSite ? new Throwable("Connection borrowed here") : null;
+            leakReported = false;
+            active.add(this);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LeaseHandler(this));
+        }
+
+        private boolean reset() {
+            try {
+                for (Statement statement : openStatements) {
+                    statement.close();
+                }
+                openStatements.clear();
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+    }
+
+    private class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        giveBack(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || pooled.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + pooled.physical + "]";
+                }
+                default -> {
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool.");
+                    }
+                }
+            }
+
+            try {
+                Object result = method.invoke(pooled.physical, args);
+                if (result instanceof Statement statement) {
+                    pooled.openStatements.add(statement);
+                    return QueryMetrics.getInstance().wrap(statement, args != null && args.length > 0 && args[0] instanceof String sql ? sql : null);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,18 +1,45 @@
 package src.managers;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.SQLException;
 
 public class DatabaseHelper {
-    private final String DB_URL = "jdbc:mysql://127.0.0.1:3306/plot_point";
-    private final String DB_USER = "root";
-    private final String DB_PASSWORD = "Alohamora7";
+    private static final String DB_URL = System.getProperty("plotpoint.db.url", "jdbc:mysql://127.0.0.1:3306/plot_point");
+    private static final String DB_USER = System.getProperty("plotpoint.db.user", "root");
+    private static final String DB_PASSWORD = System.getProperty("plotpoint.db.password", "Alohamora7");
+
+    private static final ConnectionPool pool = new ConnectionPool(
+            DB_URL,
+            DB_USER,
+            DB_PASSWORD,
+            Integer.getInteger("plotpoint.pool.minSize", 2),
+            Integer.getInteger("plotpoint.pool.maxSize", 10),
+            Long.getLong("plotpoint.pool.idleTimeoutMs", 300_000L),
+            Long.getLong("plotpoint.pool.leakThresholdMs", 60_000L),
+            Long.getLong("plotpoint.pool.borrowTimeoutMs", 10_000L),
+            Boolean.getBoolean("plotpoint.pool.captureBorrowSite")
+    );
 
     public Connection connect() {
         try {
-            return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            return pool.borrow();
         } catch (Exception e) {
             e.printStackTrace();
             return null;
         }
     }
+
+    public Connection connectAfterOwnWrites() {
+        WriteBehindQueue.getInstance().awaitOwnWrites();
+        return connect();
+    }
+
+    public static Connection openBulkConnection() throws SQLException {
+        String separator = DB_URL.contains("?") ? "&" : "?";
+        return DriverManager.getConnection(DB_URL + separator + "rewriteBatchedStatements=true", DB_USER, DB_PASSWORD);
+    }
+
+    public static ConnectionPool getPool() {
+        return pool;
+    }
 }
@@ -0,0 +1,296 @@
+package src.managers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class MigrationRunner {
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final Pattern DELIMITER = Pattern.compile("(?i)DELIMITER\\s+(\\S+)");
+    private static final String LOCK_NAME = "plot_point_migrations";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private final DatabaseHelper dbHelper = new DatabaseHelper();
+    private final Path directory;
+
+    public MigrationRunner() {
+        this(defaultDirectory());
+    }
+
+    public MigrationRunner(Path directory) {
+        this.directory = directory;
+    }
+
+    private static Path defaultDirectory() {
+        String configured = System.getProperty("plotpoint.migrations.dir");
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        try {
+            Path codeLocation = Path.of(MigrationRunner.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            for (Path dir = codeLocation; dir != null; dir = dir.getParent()) {
+                Path candidate = dir.resolve("db").resolve("migrations");
+                if (Files.isDirectory(candidate)) {
+                    return candidate;
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error locating migrations directory: " + e.getMessage());
+        }
+        return Path.of("db", "migrations");
+    }
+
+    public boolean migrate() {
+        try (Connection connection = dbHelper.connect()) {
+            List<Migration> migrations = loadMigrations();
+            if (!acquireLock(connection)) {
+                System.err.println("Error migrating database schema: timed out waiting for another instance to finish migrating.");
+                return false;
+            }
+            try {
+                return migrate(connection, migrations);
+            } finally {
+                releaseLock(connection);
+            }
+        } catch (Exception e) {
+            System.err.println("Error migrating database schema: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean migrate(Connection connection, List<Migration> migrations) throws SQLException {
+        boolean existingSchema = tableExists(connection, "books");
+        if (!tableExists(connection, "schema_version")) {
+            createVersionTable(connection);
+            if (existingSchema && !migrations.isEmpty() && migrations.get(0).version == 1) {
+                recordVersion(connection, migrations.get(0), true);
+                System.out.println("Baselined existing schema at version 1.");
+            }
+        } else if (!columnExists(connection, "schema_version", "success")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE schema_version ADD COLUMN success BOOLEAN NOT NULL DEFAULT TRUE");
+            }
+        }
+
+        List<Integer> failed = loadFailedVersions(connection);
+        if (!failed.isEmpty()) {
+            System.err.println("Migration version " + failed.get(0) + " failed partway through on an earlier run. "
+                    + "Repair the schema by hand, then delete its row from schema_version so it can be applied again.");
+            return false;
+        }
+
+        Map<Integer, String> applied = loadAppliedVersions(connection);
+        for (Migration migration : migrations) {
+            String checksum = applied.get(migration.version);
+            if (checksum == null) {
+                apply(connection, migration);
+            } else if (!checksum.equals(migration.checksum)) {
+                System.err.println("Migration " + migration.fileName + " was modified after it was applied (checksum mismatch).");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Migration> loadMigrations() throws Exception {
+        List<Migration> migrations = new ArrayList<>();
+        Map<Integer, String> fileNamesByVersion = new HashMap<>();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                int version = Integer.parseInt(matcher.group(1));
+                String previous = fileNamesByVersion.put(version, file.getFileName().toString());
+                if (previous != null) {
+                    throw new IllegalStateException("Duplicate migration version " + version + ": " + previous + " and " + file.getFileName());
+                }
+                String script = Files.readString(file, StandardCharsets.UTF_8).replace("\r\n", "\n");
+                migrations.add(new Migration(version, matcher.group(2).replace('_', ' '), file.getFileName().toString(), script));
+            }
+        }
+
+        migrations.sort((a, b) -> Integer.compare(a.version, b.version));
+        return migrations;
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        System.out.println("Applying migration " + migration.fileName + "...");
+        long startedAt = System.currentTimeMillis();
+        recordVersion(connection, migration, false);
+
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : splitStatements(migration.script)) {
+                statement.execute(sql);
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Migration " + migration.fileName + " failed: " + e.getMessage()
+                    + ". It is marked as failed in schema_version; repair the schema and delete that row before retrying.", e);
+        }
+
+        String sql = "UPDATE schema_version SET success = TRUE, execution_ms = ? WHERE version = ?";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setLong(1, System.currentTimeMillis() - startedAt);
+            preparedStatement.setInt(2, migration.version);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        String delimiter = ";";
+
+        for (String line : script.split("\n")) {
+            String trimmed = line.trim();
+            if (current.length() == 0) {
+                Matcher matcher = DELIMITER.matcher(trimmed);
+                if (matcher.matches()) {
+                    delimiter = matcher.group(1);
+                    continue;
+                }
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+            }
+
+            current.append(line).append('\n');
+            if (trimmed.endsWith(delimiter)) {
+                String sql = current.toString().trim();
+                sql = sql.substring(0, sql.length() - delimiter.length()).trim();
+                if (!sql.isEmpty()) {
+                    statements.add(sql);
+                }
+                current.setLength(0);
+            }
+        }
+
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private boolean tableExists(Connection connection, String tableName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet resultSet = metaData.getTables(connection.getCatalog(), null, tableName, new String[]{"TABLE"})) {
+            return resultSet.next();
+        }
+    }
+
+    private boolean columnExists(Connection connection, String tableName, String columnName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet resultSet = metaData.getColumns(connection.getCatalog(), null, tableName, columnName)) {
+            return resultSet.next();
+        }
+    }
+
+    private void createVersionTable(Connection connection) throws SQLException {
+        String sql = """
+            CREATE TABLE IF NOT EXISTS schema_version (
+                version INT PRIMARY KEY,
+                description VARCHAR(200) NOT NULL,
+                checksum CHAR(64) NOT NULL,
+                installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                execution_ms BIGINT NOT NULL,
+                success BOOLEAN NOT NULL DEFAULT TRUE
+            )
+        """;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private Map<Integer, String> loadAppliedVersions(Connection connection) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (PreparedStatement preparedStatement = connection.prepareStatement("SELECT version, checksum FROM schema_version")) {
+            ResultSet resultSet = preparedStatement.executeQuery();
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt("version"), resultSet.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private List<Integer> loadFailedVersions(Connection connection) throws SQLException {
+        List<Integer> failed = new ArrayList<>();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "SELECT version FROM schema_version WHERE success = FALSE ORDER BY version")) {
+            ResultSet resultSet = preparedStatement.executeQuery();
+            while (resultSet.next()) {
+                failed.add(resultSet.getInt("version"));
+            }
+        }
+        return failed;
+    }
+
+    private void recordVersion(Connection connection, Migration migration, boolean success) throws SQLException {
+        String sql = "INSERT INTO schema_version (version, description, checksum, execution_ms, success) VALUES (?, ?, ?, 0, ?)";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setInt(1, migration.version);
+            preparedStatement.setString(2, migration.description);
+            preparedStatement.setString(3, migration.checksum);
+            preparedStatement.setBoolean(4, success);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    private boolean acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            preparedStatement.setString(1, LOCK_NAME);
+            preparedStatement.setInt(2, LOCK_TIMEOUT_SECONDS);
+            ResultSet resultSet = preparedStatement.executeQuery();
+            return resultSet.next() && resultSet.getInt(1) == 1;
+        }
+    }
+
+    private void releaseLock(Connection connection) {
+        try (PreparedStatement preparedStatement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            preparedStatement.setString(1, LOCK_NAME);
+            preparedStatement.executeQuery();
+        } catch (SQLException e) {
+            System.err.println("Error releasing migration lock: " + e.getMessage());
+        }
+    }
+
+    private static String sha256(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final String fileName;
+        private final String script;
+        private final String checksum;
+
+        private Migration(int version, String description, String fileName, String script) {
+            this.version = version;
+            this.description = description;
+            this.fileName = fileName;
+            this.script = script;
+            this.checksum = sha256(script);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package src.managers;
+import src.util.JsonWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+
+public class QueryMetrics implements QueryMetricsMXBean {
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("plotpoint.metrics.enabled", "true"));
+    private static final String SNAPSHOT_FILE = System.getProperty("plotpoint.metrics.snapshotFile", "");
+    private static final long SNAPSHOT_INTERVAL_MILLIS = Long.getLong("plotpoint.metrics.snapshotIntervalMs", 60_000L);
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final SlowQueryLog SLOW_QUERY_LOG = SlowQueryLog.getInstance();
+
+    private static final QueryMetrics instance = new QueryMetrics();
+
+    private final Map<String, QueryStats> statsByQuery = new ConcurrentHashMap<>();
+    private ScheduledExecutorService snapshotWriter;
+
+    private QueryMetrics() {
+        if (ENABLED && Boolean.parseBoolean(System.getProperty("plotpoint.metrics.jmx", "true"))) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("src.managers:type=QueryMetrics"));
+            } catch (Exception e) {
+                System.err.println("Error registering query metrics with JMX: " + e.getMessage());
+            }
+        }
+    }
+
+    public static QueryMetrics getInstance() {
+        return instance;
+    }
+
+    public Statement wrap(Statement statement, String sql) {
+        if (!ENABLED) {
+            return statement;
+        }
+        startSnapshots();
+        String queryName = callerName();
+        QueryStats stats = statsByQuery.computeIfAbsent(queryName, name -> new QueryStats());
+
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                new Class<?>[]{type}, new StatementHandler(statement, stats, queryName, sql));
+    }
+
+    private static String callerName() {
+        return WALKER.walk(frames -> frames
+                .filter(frame -> isApplicationFrame(frame.getClassName()))
+                .findFirst()
+                .map(frame -> {
+                    String className = frame.getClassName();
+                    return className.substring(className.lastIndexOf('.') + 1).replace('$', '.') + "." + frame.getMethodName();
+                })
+                .orElse("unknown"));
+    }
+
+    private static boolean isApplicationFrame(String className) {
+        return className.startsWith("src.")
+                && !className.startsWith(ConnectionPool.class.getName())
+                && !className.startsWith(QueryMetrics.class.getName());
+    }
+
+    private synchronized void startSnapshots() {
+        if (snapshotWriter != null || SNAPSHOT_FILE.isEmpty() || SNAPSHOT_INTERVAL_MILLIS <= 0) {
+            return;
+        }
+        snapshotWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "plotpoint-metrics-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotWriter.scheduleAtFixedRate(this::writeSnapshot, SNAPSHOT_INTERVAL_MILLIS, SNAPSHOT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void writeSnapshot() {
+        if (SNAPSHOT_FILE.isEmpty()) {
+            return;
+        }
+        try {
+            Path target = Path.of(SNAPSHOT_FILE).toAbsolutePath();
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            String snapshot = SNAPSHOT_FILE.endsWith(".json") ? getSnapshotJson() : getSnapshotText();
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.writeString(temp, snapshot, StandardCharsets.UTF_8);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error writing metrics snapshot: " + e.getMessage());
+        }
+    }
+
+    public synchronized void close() {
+        if (snapshotWriter != null) {
+            snapshotWriter.shutdownNow();
+            snapshotWriter = null;
+        }
+        writeSnapshot();
+        SLOW_QUERY_LOG.close();
+    }
+
+    @Override
+    public String getSnapshotText() {
+        StringBuilder text = new StringBuilder();
+        text.append("PlotPoint query metrics at ").append(Instant.now()).append('\n');
+        text.append(DatabaseHelper.getPool()).append('\n');
+        text.append(BookCache.getInstance()).append('\n');
+        text.append(WriteBehindQueue.getInstance()).append('\n');
+        text.append("Slow queries logged: ").append(SLOW_QUERY_LOG.getSlowQueryCount())
+                .append(" (dropped ").append(SLOW_QUERY_LOG.getDroppedEntryCount()).append(")\n\n");
+        text.append(String.format("%-52s %9s %10s %10s %10s %10s %10s %10s %7s%n",
+                "Query", "calls", "mean us", "p50 us", "p99 us", "p999 us", "max us", "rows", "errors"));
+
+        for (Map.Entry<String, QueryStats> entry : sortedStats()) {
+            LatencyHistogram latency = entry.getValue().latency;
+            text.append(String.format("%-52s %9d %10.1f %10.1f %10.1f %10.1f %10.1f %10d %7d%n",
+                    entry.getKey(), latency.getCount(), latency.getMeanNanos() / 1e3,
+                    latency.getPercentileNanos(50) / 1e3, latency.getPercentileNanos(99) / 1e3,
+                    latency.getPercentileNanos(99.9) / 1e3, latency.getMaxNanos() / 1e3,
+                    entry.getValue().rows.sum(), entry.getValue().errors.sum()));
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String getSnapshotJson() {
+        StringWriter out = new StringWriter();
+        try {
+            JsonWriter json = new JsonWriter(out);
+            json.beginObject()
+                    .name("timestamp").value(Instant.now().toString())
+                    .name("connectionsOpened").value(getConnectionsOpened())
+                    .name("connectionBorrows").value(getConnectionBorrows())
+                    .name("activeConnections").value(DatabaseHelper.getPool().getActiveCount())
+                    .name("bookCacheHits").value(getBookCacheHits())
+                    .name("bookCacheMisses").value(getBookCacheMisses())
+                    .name("pendingWrites").value(WriteBehindQueue.getInstance().getPendingCount())
+                    .name("slowQueries").value(SLOW_QUERY_LOG.getSlowQueryCount())
+                    .name("queries").beginArray();
+            for (Map.Entry<String, QueryStats> entry : sortedStats()) {
+                LatencyHistogram latency = entry.getValue().latency;
+                json.beginObject()
+                        .name("name").value(entry.getKey())
+                        .name("calls").value(latency.getCount())
+                        .name("meanMicros").value(latency.getMeanNanos() / 1e3)
+                        .name("p50Micros").value(latency.getPercentileNanos(50) / 1e3)
+                        .name("p99Micros").value(latency.getPercentileNanos(99) / 1e3)
+                        .name("p999Micros").value(latency.getPercentileNanos(99.9) / 1e3)
+                        .name("maxMicros").value(latency.getMaxNanos() / 1e3)
+                        .name("rows").value(entry.getValue().rows.sum())
+                        .name("errors").value(entry.getValue().errors.sum())
+                        .endObject();
+            }
+            json.endArray().endObject();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toString();
+    }
+
+    private List<Map.Entry<String, QueryStats>> sortedStats() {
+        List<Map.Entry<String, QueryStats>> entries = new ArrayList<>(statsByQuery.entrySet());
+        entries.sort((a, b) -> Double.compare(b.getValue().totalNanos(), a.getValue().totalNanos()));
+        return entries;
+    }
+
+    @Override
+    public long getStatementsExecuted() {
+        long executed = 0;
+        for (QueryStats stats : statsByQuery.values()) {
+            executed += stats.latency.getCount();
+        }
+        return executed;
+    }
+
+    @Override
+    public long getStatementErrors() {
+        long errors = 0;
+        for (QueryStats stats : statsByQuery.values()) {
+            errors += stats.errors.sum();
+        }
+        return errors;
+    }
+
+    @Override
+    public long getConnectionsOpened() {
+        return DatabaseHelper.getPool().getConnectionsCreated();
+    }
+
+    @Override
+    public long getConnectionBorrows() {
+        return DatabaseHelper.getPool().getBorrowCount();
+    }
+
+    @Override
+    public long getBookCacheHits() {
+        return BookCache.getInstance().getHitCount();
+    }
+
+    @Override
+    public long getBookCacheMisses() {
+        return BookCache.getInstance().getMissCount();
+    }
+
+    @Override
+    public Map<String, Long> getP99MicrosByQuery() {
+        Map<String, Long> p99 = new LinkedHashMap<>();
+        for (Map.Entry<String, QueryStats> entry : sortedStats()) {
+            p99.put(entry.getKey(), entry.getValue().latency.getPercentileNanos(99) / 1_000);
+        }
+        return p99;
+    }
+
+    @Override
+    public void reset() {
+        statsByQuery.clear();
+    }
+
+    private static class QueryStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        private double totalNanos() {
+            return latency.getMeanNanos() * latency.getCount();
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final QueryStats stats;
+        private final String name;
+        private final String sql;
+        private final SortedMap<Integer, Object> parameters = new TreeMap<>();
+        private String slowSql;
+        private SortedMap<Integer, Object> slowParameters;
+        private long slowNanos;
+        private long slowRows;
+
+        private StatementHandler(Statement statement, QueryStats stats, String name, String sql) {
+            this.statement = statement;
+            this.stats = stats;
+            this.name = name;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            if (!methodName.startsWith("execute")) {
+                if (methodName.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, methodName.equals("setNull") ? null : args[1]);
+                } else if (methodName.equals("clearParameters")) {
+                    parameters.clear();
+                } else if (methodName.equals("close")) {
+                    flushSlowQuery();
+                }
+                Object result = invokeTarget(method, args);
+                return methodName.equals("getResultSet") && result != null ? countRows((ResultSet) result) : result;
+            }
+
+            flushSlowQuery();
+            String executedSql = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            long startedAt = System.nanoTime();
+            Object result;
+            try {
+                result = invokeTarget(method, args);
+            } catch (Throwable e) {
+                long elapsed = System.nanoTime() - startedAt;
+                stats.latency.record(elapsed);
+                stats.errors.increment();
+                if (SLOW_QUERY_LOG.isSlow(elapsed)) {
+                    SLOW_QUERY_LOG.record(name, executedSql, parameters, elapsed, -1, e.getMessage());
+                }
+                throw e;
+            }
+            long elapsed = System.nanoTime() - startedAt;
+            stats.latency.record(elapsed);
+            boolean slow = SLOW_QUERY_LOG.isSlow(elapsed);
+
+            long rows = -1;
+            if (result instanceof ResultSet resultSet) {
+                if (slow) {
+                    slowSql = executedSql;
+                    slowParameters = new TreeMap<>(parameters);
+                    slowNanos = elapsed;
+                    slowRows = 0;
+                }
+                return countRows(resultSet);
+            }
+            if (result instanceof int[] updateCounts) {
+                rows = 0;
+                for (int updated : updateCounts) {
+                    rows += Math.max(updated, 0);
+                }
+                stats.rows.add(rows);
+            } else if (result instanceof Number updated && !methodName.equals("execute")) {
+                rows = updated.longValue();
+                stats.rows.add(rows);
+            }
+            if (slow) {
+                SLOW_QUERY_LOG.record(name, executedSql, parameters, elapsed, rows, null);
+            }
+            return result;
+        }
+
+        private void flushSlowQuery() {
+            if (slowSql != null) {
+                SLOW_QUERY_LOG.record(name, slowSql, slowParameters, slowNanos, slowRows, null);
+                slowSql = null;
+                slowParameters = null;
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private ResultSet countRows(ResultSet resultSet) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        try {
+                            Object result = method.invoke(resultSet, args);
+                            if (result == Boolean.TRUE && method.getName().equals("next")) {
+                                stats.rows.increment();
+                                slowRows++;
+                            } else if (method.getName().equals("close")) {
+                                flushSlowQuery();
+                            }
+                            return result;
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package src.managers;
+import java.util.Map;
+
+public interface QueryMetricsMXBean {
+    String getSnapshotText();
+
+    String getSnapshotJson();
+
+    long getStatementsExecuted();
+
+    long getStatementErrors();
+
+    long getConnectionsOpened();
+
+    long getConnectionBorrows();
+
+    long getBookCacheHits();
+
+    long getBookCacheMisses();
+
+    Map<String, Long> getP99MicrosByQuery();
+
+    void reset();
+}
@@ -0,0 +1,104 @@
+package src.managers;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class QueryPlanCheck {
+    private final DatabaseHelper dbHelper = new DatabaseHelper();
+    private final Map<String, HotQuery> hotQueries = new LinkedHashMap<>();
+
+    public QueryPlanCheck() {
+        add("ShelfManager.isBookInAnyShelf", ShelfManager.SHELF_OF_BOOK_QUERY, 1, 1);
+        add("ShelfManager.getBooksInShelf", ShelfManager.BOOKS_IN_SHELF_QUERY, 1, "Read");
+        add("ShelfManager.getBookDetailsInShelf", ShelfManager.BOOK_DETAILS_IN_SHELF_QUERY, 1, "Read", 1);
+        add("ShelfManager.removeBookFromShelf", ShelfManager.REMOVE_FROM_SHELF_SQL, 1, 1, 1);
+        addSorted("ReadingStatsStore.load (reads)", ReadingStatsStore.READ_BOOKS_QUERY, 1);
+        addSorted("ReadingStatsStore.load (genres)", ReadingStatsStore.READ_GENRES_QUERY, 1);
+        add("ReadingStatsStore.load (ratings)", ReadingStatsStore.RATINGS_QUERY, 1);
+        addSorted("BookManager.getRecommendedBooksByTag", BookManager.RECOMMENDED_BY_TAG_QUERY, "Fantasy", "10.00", "10.00", 0, 11);
+        addSorted("BookManager.searchByKeywords", BookManager.KEYWORD_SEARCH_QUERY,
+                "circus*", "circus*", "999999999999", "999999999999", 0, 21);
+        add("BookManager.loadTagIds", BookManager.BOOK_TAGS_QUERY, 1);
+        add("BookManager.getReviewedBooks", BookManager.REVIEWED_BOOKS_QUERY, 1);
+        add("ReviewManager.hasUserReviewedBook", ReviewManager.HAS_REVIEWED_QUERY, 1, 1);
+        add("ReviewManager.getReviews", ReviewManager.REVIEWS_OF_BOOK_QUERY, 1);
+        add("ReviewManager.getAverageRating", ReviewManager.AVERAGE_RATING_QUERY, 1);
+    }
+
+    private void add(String name, String sql, Object... parameters) {
+        hotQueries.put(name, new HotQuery(sql, false, parameters));
+    }
+
+    private void addSorted(String name, String sql, Object... parameters) {
+        hotQueries.put(name, new HotQuery(sql, true, parameters));
+    }
+
+    public List<String> findFullScans() {
+        List<String> failures = new ArrayList<>();
+
+        try (Connection connection = dbHelper.connect()) {
+            for (Map.Entry<String, HotQuery> entry : hotQueries.entrySet()) {
+                HotQuery hotQuery = entry.getValue();
+                try (PreparedStatement preparedStatement = connection.prepareStatement("EXPLAIN " + hotQuery.sql)) {
+                    for (int i = 0; i < hotQuery.parameters.length; i++) {
+                        preparedStatement.setObject(i + 1, hotQuery.parameters[i]);
+                    }
+                    ResultSet resultSet = preparedStatement.executeQuery();
+
+                    while (resultSet.next()) {
+                        String table = resultSet.getString("table");
+                        String type = resultSet.getString("type");
+                        String key = resultSet.getString("key");
+                        long rows = resultSet.getLong("rows");
+                        String extra = resultSet.getString("Extra");
+                        System.out.printf("%-40s %-12s %-8s %-32s %-8d %s%n", entry.getKey(), table, type, key, rows,
+                                extra == null ? "" : extra);
+
+                        if ("ALL".equals(type)) {
+                            failures.add(entry.getKey() + ": full table scan of " + table + " (" + rows + " rows)");
+                        } else if ("index".equals(type)) {
+                            failures.add(entry.getKey() + ": full index scan of " + table + " on " + key + " (" + rows + " rows)");
+                        }
+                        if (!hotQuery.sortAllowed && extra != null
+                                && (extra.contains("Using filesort") || extra.contains("Using temporary"))) {
+                            failures.add(entry.getKey() + ": " + extra + " on " + table);
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            failures.add("Error explaining hot queries: " + e.getMessage());
+        }
+
+        return failures;
+    }
+
+    public boolean run() {
+        List<String> failures = findFullScans();
+        if (failures.isEmpty()) {
+            System.out.println("\nNo hot query falls back to a full scan or an unexpected sort.");
+            return true;
+        }
+        System.err.println();
+        for (String failure : failures) {
+            System.err.println(failure);
+        }
+        return false;
+    }
+
+    private static class HotQuery {
+        private final String sql;
+        private final boolean sortAllowed;
+        private final Object[] parameters;
+
+        private HotQuery(String sql, boolean sortAllowed, Object[] parameters) {
+            this.sql = sql;
+            this.sortAllowed = sortAllowed;
+            this.parameters = parameters;
+        }
+    }
+}
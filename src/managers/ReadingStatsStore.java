@@ -0,0 +1,201 @@
+package src.managers;
+import src.models.Book;
+import src.models.ReadingStats;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class ReadingStatsStore {
+    private static final ReadingStatsStore instance = new ReadingStatsStore();
+
+    static final String READ_BOOKS_QUERY = """
+        SELECT sb.book_id, DATE_FORMAT(MIN(sb.date_added), '%Y-%m') AS month, b.page_count
+        FROM shelf_books sb
+        JOIN shelves s ON sb.shelf_id = s.shelf_id
+        JOIN books b ON sb.book_id = b.book_id
+        WHERE s.user_id = ? AND s.shelf_name = 'Read'
+        GROUP BY sb.book_id, b.page_count
+    """;
+
+    static final String READ_GENRES_QUERY = """
+        SELECT DISTINCT sb.book_id, bt.tag_name
+        FROM shelf_books sb
+        JOIN shelves s ON sb.shelf_id = s.shelf_id
+        JOIN book_tags bt ON sb.book_id = bt.book_id
+        WHERE s.user_id = ? AND s.shelf_name = 'Read'
+    """;
+
+    static final String RATINGS_QUERY = """
+        SELECT book_id, DATE_FORMAT(date, '%Y-%m') AS month, rating
+        FROM reviews
+        WHERE user_id = ?
+        ORDER BY date
+    """;
+
+    private static final int VERSION_STRIPES = 1024;
+
+    private final int maxUsers = Integer.getInteger("plotpoint.stats.maxUsers", 1_000);
+    private final long ttlNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("plotpoint.stats.ttlMs", 600_000L));
+    private final DatabaseHelper dbHelper = new DatabaseHelper();
+    private final TagDictionary tagDictionary = TagDictionary.getInstance();
+    private final LinkedHashMap<Integer, CachedStats> statsByUser = new LinkedHashMap<>(64, 0.75f, true);
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    private ReadingStatsStore() {}
+
+    public static ReadingStatsStore getInstance() {
+        return instance;
+    }
+
+    public ReadingStats getStats(int userId) {
+        ReadingStats stats = cached(userId);
+        if (stats != null) {
+            return stats;
+        }
+        long version = versions.get(stripe(userId));
+        stats = load(userId);
+        if (stats == null) {
+            return new ReadingStats();
+        }
+        synchronized (this) {
+            ReadingStats existing = cached(userId);
+            if (existing != null) {
+                return existing;
+            }
+            if (versions.get(stripe(userId)) == version) {
+                statsByUser.put(userId, new CachedStats(stats));
+                Iterator<CachedStats> eldestFirst = statsByUser.values().iterator();
+                while (statsByUser.size() > maxUsers && eldestFirst.hasNext()) {
+                    eldestFirst.next();
+                    eldestFirst.remove();
+                }
+            }
+        }
+        return stats;
+    }
+
+    public void bookShelved(int userId, Book book, String shelfName) {
+        ReadingStats stats = changed(userId);
+        if (stats == null) {
+            return;
+        }
+        if (shelfName.equals("Read")) {
+            stats.addRead(book.getBookId(), YearMonth.now().toString(), book.getPageCount(), book.getGenres());
+        } else {
+            stats.removeRead(book.getBookId());
+        }
+    }
+
+    public void bookUnshelved(int userId, int bookId, String shelfName) {
+        ReadingStats stats = changed(userId);
+        if (stats != null && shelfName.equals("Read")) {
+            stats.removeRead(bookId);
+        }
+    }
+
+    public void reviewSaved(int userId, int bookId, int rating) {
+        ReadingStats stats = changed(userId);
+        if (stats != null) {
+            stats.addRating(bookId, YearMonth.now().toString(), rating);
+        }
+    }
+
+    public void reviewRemoved(int userId, int bookId) {
+        ReadingStats stats = changed(userId);
+        if (stats != null) {
+            stats.removeRating(bookId);
+        }
+    }
+
+    public void writeApplied(int userId) {
+        versions.incrementAndGet(stripe(userId));
+    }
+
+    public synchronized void invalidate(int userId) {
+        versions.incrementAndGet(stripe(userId));
+        statsByUser.remove(userId);
+    }
+
+    public synchronized void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        statsByUser.clear();
+    }
+
+    private synchronized ReadingStats changed(int userId) {
+        versions.incrementAndGet(stripe(userId));
+        return cached(userId);
+    }
+
+    private synchronized ReadingStats cached(int userId) {
+        CachedStats cached = statsByUser.get(userId);
+        if (cached == null) {
+            return null;
+        }
+        if (System.nanoTime() - cached.storedAt > ttlNanos) {
+            statsByUser.remove(userId);
+            return null;
+        }
+        return cached.stats;
+    }
+
+    private static int stripe(int userId) {
+        return Math.floorMod(userId, VERSION_STRIPES);
+    }
+
+    private ReadingStats load(int userId) {
+        try (Connection connection = dbHelper.connectAfterOwnWrites();
+             PreparedStatement readStmt = connection.prepareStatement(READ_BOOKS_QUERY);
+             PreparedStatement tagStmt = connection.prepareStatement(READ_GENRES_QUERY);
+             PreparedStatement ratingStmt = connection.prepareStatement(RATINGS_QUERY)) {
+
+            Map<Integer, List<String>> genresByBook = new HashMap<>();
+            tagStmt.setInt(1, userId);
+            ResultSet tags = tagStmt.executeQuery();
+            while (tags.next()) {
+                String tagName = tags.getString("tag_name");
+                int tagId = tagDictionary.idOf(tagName);
+                if (tagId >= 0 && tagDictionary.typeOf(tagId).equals(TagDictionary.GENRE)) {
+                    genresByBook.computeIfAbsent(tags.getInt("book_id"), id -> new ArrayList<>()).add(tagDictionary.nameOf(tagId));
+                }
+            }
+
+            ReadingStats stats = new ReadingStats();
+            readStmt.setInt(1, userId);
+            ResultSet reads = readStmt.executeQuery();
+            while (reads.next()) {
+                int bookId = reads.getInt("book_id");
+                stats.addRead(bookId, reads.getString("month"), reads.getInt("page_count"), genresByBook.getOrDefault(bookId, List.of()));
+            }
+
+            ratingStmt.setInt(1, userId);
+            ResultSet ratings = ratingStmt.executeQuery();
+            while (ratings.next()) {
+                stats.addRating(ratings.getInt("book_id"), ratings.getString("month"), ratings.getInt("rating"));
+            }
+            return stats;
+        } catch (Exception e) {
+            System.err.println("Error loading reading stats: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static class CachedStats {
+        private final ReadingStats stats;
+        private final long storedAt = System.nanoTime();
+
+        private CachedStats(ReadingStats stats) {
+            this.stats = stats;
+        }
+    }
+}
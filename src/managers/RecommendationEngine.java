@@ -0,0 +1,719 @@
+package src.managers;
+import src.models.UserContext;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+public class RecommendationEngine {
+    private static final int NEIGHBOURS = Integer.getInteger("plotpoint.recs.neighbours", 50);
+    private static final int MIN_CO_RATERS = Integer.getInteger("plotpoint.recs.minCoRaters", 2);
+    private static final int MAX_USER_ITEMS = Integer.getInteger("plotpoint.recs.maxUserItems", 1_000);
+    private static final long REFRESH_INTERVAL_MILLIS = Long.getLong("plotpoint.recs.refreshIntervalMs", 60_000L);
+    private static final int MAX_INCREMENTAL_ITEMS = 10_000;
+    private static final float SHRINKAGE = 10f;
+    private static final float SUPPORT_DAMPING = 0.5f;
+    private static final float NEUTRAL_RATING = 3f;
+    private static final int PRIOR_RATINGS = 2;
+
+    private static final RecommendationEngine instance = new RecommendationEngine();
+
+    private final DatabaseHelper dbHelper = new DatabaseHelper();
+    private final UserManager userManager = UserManager.getInstance();
+    private final Set<Integer> dirtyBooks = ConcurrentHashMap.newKeySet();
+    private final Object buildLock = new Object();
+    private volatile Model model;
+    private ScheduledExecutorService refresher;
+
+    private RecommendationEngine() {}
+
+    public static RecommendationEngine getInstance() {
+        return instance;
+    }
+
+    public synchronized void buildInBackground() {
+        if (refresher != null) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "plotpoint-recommendations");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.execute(this::build);
+        if (REFRESH_INTERVAL_MILLIS > 0) {
+            refresher.scheduleWithFixedDelay(this::refresh, REFRESH_INTERVAL_MILLIS, REFRESH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void ratingChanged(int bookId) {
+        dirtyBooks.add(bookId);
+    }
+
+    public boolean isReady() {
+        return model != null;
+    }
+
+    public void build() {
+        synchronized (buildLock) {
+            dirtyBooks.clear();
+            try {
+                model = compute(loadAllRatings());
+            } catch (SQLException e) {
+                System.err.println("Error building recommendations: " + e.getMessage());
+            }
+        }
+    }
+
+    public void refresh() {
+        synchronized (buildLock) {
+            Model current = model;
+            if (current == null || dirtyBooks.isEmpty()) {
+                return;
+            }
+
+            List<Integer> drained = new ArrayList<>();
+            Iterator<Integer> iterator = dirtyBooks.iterator();
+            while (iterator.hasNext()) {
+                drained.add(iterator.next());
+                iterator.remove();
+            }
+
+            if (drained.size() > Math.min(MAX_INCREMENTAL_ITEMS, Math.max(100, current.itemIds.length / 10))) {
+                build();
+                return;
+            }
+
+            try {
+                RatingRows rows = loadCoRaterRatings(drained);
+                Model extended = current.extend(newlyRatedBooks(current, drained, rows));
+                int[] dirtyItems = drained.stream().mapToInt(extended::indexOf).filter(item -> item >= 0).sorted().toArray();
+                model = refresh(extended, dirtyItems, rows);
+            } catch (SQLException e) {
+                dirtyBooks.addAll(drained);
+                System.err.println("Error refreshing recommendations: " + e.getMessage());
+            }
+        }
+    }
+
+    private static int[] newlyRatedBooks(Model current, List<Integer> dirtyBookIds, RatingRows rows) {
+        Set<Integer> unknown = new HashSet<>();
+        for (int bookId : dirtyBookIds) {
+            if (current.indexOf(bookId) < 0) {
+                unknown.add(bookId);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return new int[0];
+        }
+        return Arrays.stream(rows.bookIds, 0, rows.size).filter(unknown::contains).sorted().distinct().toArray();
+    }
+
+    public List<Integer> recommend(int userId, int limit) {
+        Model current = model;
+        if (current == null || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Integer, Integer> ratings;
+        Set<Integer> excluded;
+        UserContext context = userManager.getUserContext(userId);
+        if (context != null) {
+            ratings = context.getRatings();
+            excluded = context.getShelvedBookIds();
+        } else {
+            ratings = new HashMap<>();
+            excluded = new HashSet<>();
+            loadUserState(userId, ratings, excluded);
+        }
+        if (ratings.isEmpty()) {
+            return List.of();
+        }
+
+        float ratingSum = 0;
+        for (int rating : ratings.values()) {
+            ratingSum += rating;
+        }
+        float mean = (ratingSum + NEUTRAL_RATING * PRIOR_RATINGS) / (ratings.size() + PRIOR_RATINGS);
+
+        ScoreTable scores = new ScoreTable(ratings.size() * NEIGHBOURS);
+        for (Map.Entry<Integer, Integer> rating : ratings.entrySet()) {
+            int item = current.indexOf(rating.getKey());
+            if (item < 0) {
+                continue;
+            }
+            float centered = rating.getValue() - mean;
+            for (int p = current.neighbourStart[item]; p < current.neighbourStart[item + 1]; p++) {
+                float similarity = current.neighbourSimilarity[p];
+                scores.add(current.neighbourIndex[p], similarity * centered, similarity);
+            }
+        }
+
+        TopK top = new TopK(limit);
+        for (int slot = 0; slot < scores.keys.length; slot++) {
+            int item = scores.keys[slot];
+            if (item < 0 || scores.scores[slot] <= 0) {
+                continue;
+            }
+            int bookId = current.itemIds[item];
+            if (ratings.containsKey(bookId) || excluded.contains(bookId)) {
+                continue;
+            }
+            top.offer(bookId, scores.scores[slot] / (scores.weights[slot] + SUPPORT_DAMPING));
+        }
+
+        List<Integer> bookIds = new ArrayList<>(limit);
+        for (int bookId : top.sortedIds()) {
+            bookIds.add(bookId);
+        }
+        return bookIds;
+    }
+
+    private void loadUserState(int userId, Map<Integer, Integer> ratings, Set<Integer> shelved) {
+        try (Connection connection = dbHelper.connect();
+             PreparedStatement ratingStmt = connection.prepareStatement("SELECT book_id, rating FROM reviews WHERE user_id = ?");
+             PreparedStatement shelfStmt = connection.prepareStatement("SELECT book_id FROM shelf_books WHERE user_id = ?")) {
+
+            ratingStmt.setInt(1, userId);
+            ResultSet ratingRows = ratingStmt.executeQuery();
+            while (ratingRows.next()) {
+                ratings.put(ratingRows.getInt("book_id"), ratingRows.getInt("rating"));
+            }
+
+            shelfStmt.setInt(1, userId);
+            ResultSet shelfRows = shelfStmt.executeQuery();
+            while (shelfRows.next()) {
+                shelved.add(shelfRows.getInt("book_id"));
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading reader history: " + e.getMessage());
+        }
+    }
+
+    private RatingRows loadAllRatings() throws SQLException {
+        String query = "SELECT user_id, book_id, rating FROM reviews ORDER BY user_id";
+        try (Connection connection = DatabaseHelper.openBulkConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            preparedStatement.setFetchSize(Integer.MIN_VALUE);
+            return readRatings(preparedStatement.executeQuery());
+        }
+    }
+
+    private RatingRows loadCoRaterRatings(List<Integer> bookIds) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(bookIds.size(), "?"));
+        String query = """
+            SELECT r.user_id, r.book_id, r.rating
+            FROM reviews r
+            JOIN (SELECT DISTINCT user_id FROM reviews WHERE book_id IN (%s)) raters ON r.user_id = raters.user_id
+            ORDER BY r.user_id
+        """.formatted(placeholders);
+
+        try (Connection connection = dbHelper.connect();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+
+            for (int i = 0; i < bookIds.size(); i++) {
+                preparedStatement.setInt(i + 1, bookIds.get(i));
+            }
+            return readRatings(preparedStatement.executeQuery());
+        }
+    }
+
+    private RatingRows readRatings(ResultSet resultSet) throws SQLException {
+        RatingRows rows = new RatingRows();
+        while (resultSet.next()) {
+            rows.add(resultSet.getInt("user_id"), resultSet.getInt("book_id"), resultSet.getInt("rating"));
+        }
+        rows.finish();
+        return rows;
+    }
+
+    private Model compute(RatingRows rows) {
+        int[] itemIds = Arrays.stream(rows.bookIds, 0, rows.size).sorted().distinct().toArray();
+        int itemCount = itemIds.length;
+        int[] entryItems = rows.itemIndexes(itemIds);
+
+        int[] itemStart = new int[itemCount + 1];
+        for (int e = 0; e < rows.size; e++) {
+            itemStart[entryItems[e] + 1]++;
+        }
+        for (int i = 0; i < itemCount; i++) {
+            itemStart[i + 1] += itemStart[i];
+        }
+        int[] itemRows = new int[rows.size];
+        float[] itemValues = new float[rows.size];
+        int[] fill = Arrays.copyOf(itemStart, itemCount);
+        for (int row = 0; row < rows.rowCount; row++) {
+            for (int e = rows.rowStart[row]; e < rows.rowStart[row + 1]; e++) {
+                int position = fill[entryItems[e]]++;
+                itemRows[position] = row;
+                itemValues[position] = rows.values[e];
+            }
+        }
+
+        float[] norms = new float[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            double sum = 0;
+            for (int p = itemStart[i]; p < itemStart[i + 1]; p++) {
+                if (rows.rowLength(itemRows[p]) <= MAX_USER_ITEMS) {
+                    sum += itemValues[p] * itemValues[p];
+                }
+            }
+            norms[i] = (float) Math.sqrt(sum);
+        }
+
+        int[][] neighbours = new int[itemCount][];
+        float[][] similarities = new float[itemCount][];
+        ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(() -> new Workspace(itemCount));
+        IntStream.range(0, itemCount).parallel().forEach(item -> {
+            Workspace workspace = workspaces.get();
+            for (int p = itemStart[item]; p < itemStart[item + 1]; p++) {
+                workspace.accumulate(rows, entryItems, itemRows[p], item, itemValues[p]);
+            }
+            TopK top = workspace.collect(item, norms[item], norms);
+            neighbours[item] = top.sortedIds();
+            similarities[item] = top.sortedScores();
+        });
+
+        return Model.pack(itemIds, norms, neighbours, similarities);
+    }
+
+    private Model refresh(Model current, int[] dirtyItems, RatingRows rows) {
+        int itemCount = current.itemIds.length;
+        int[] entryItems = rows.itemIndexes(current.itemIds);
+
+        int[] dirtyStart = new int[dirtyItems.length + 1];
+        for (int e = 0; e < rows.size; e++) {
+            int k = entryItems[e] < 0 ? -1 : Arrays.binarySearch(dirtyItems, entryItems[e]);
+            if (k >= 0) {
+                dirtyStart[k + 1]++;
+            }
+        }
+        for (int k = 0; k < dirtyItems.length; k++) {
+            dirtyStart[k + 1] += dirtyStart[k];
+        }
+        int[] dirtyRows = new int[dirtyStart[dirtyItems.length]];
+        float[] dirtyValues = new float[dirtyRows.length];
+        int[] fill = Arrays.copyOf(dirtyStart, dirtyItems.length);
+        for (int row = 0; row < rows.rowCount; row++) {
+            for (int e = rows.rowStart[row]; e < rows.rowStart[row + 1]; e++) {
+                int k = entryItems[e] < 0 ? -1 : Arrays.binarySearch(dirtyItems, entryItems[e]);
+                if (k >= 0) {
+                    dirtyRows[fill[k]] = row;
+                    dirtyValues[fill[k]++] = rows.values[e];
+                }
+            }
+        }
+
+        float[] norms = Arrays.copyOf(current.norms, itemCount);
+        for (int k = 0; k < dirtyItems.length; k++) {
+            double sum = 0;
+            for (int p = dirtyStart[k]; p < dirtyStart[k + 1]; p++) {
+                if (rows.rowLength(dirtyRows[p]) <= MAX_USER_ITEMS) {
+                    sum += dirtyValues[p] * dirtyValues[p];
+                }
+            }
+            norms[dirtyItems[k]] = (float) Math.sqrt(sum);
+        }
+
+        Map<Integer, Neighbours> changed = new HashMap<>();
+        Workspace workspace = new Workspace(itemCount);
+        for (int k = 0; k < dirtyItems.length; k++) {
+            int item = dirtyItems[k];
+            for (int p = dirtyStart[k]; p < dirtyStart[k + 1]; p++) {
+                workspace.accumulate(rows, entryItems, dirtyRows[p], item, dirtyValues[p]);
+            }
+
+            Set<Integer> linked = new HashSet<>();
+            TopK top = workspace.collect(item, norms[item], norms, (other, similarity) -> {
+                if (Arrays.binarySearch(dirtyItems, other) < 0) {
+                    changed.computeIfAbsent(other, current::neighboursOf).link(item, similarity);
+                    linked.add(other);
+                }
+            });
+            changed.put(item, new Neighbours(top.sortedIds(), top.sortedScores()));
+
+            for (int p = current.neighbourStart[item]; p < current.neighbourStart[item + 1]; p++) {
+                int other = current.neighbourIndex[p];
+                if (!linked.contains(other) && Arrays.binarySearch(dirtyItems, other) < 0) {
+                    changed.computeIfAbsent(other, current::neighboursOf).unlink(item);
+                }
+            }
+        }
+
+        int[][] neighbours = new int[itemCount][];
+        float[][] similarities = new float[itemCount][];
+        for (int item = 0; item < itemCount; item++) {
+            Neighbours row = changed.get(item);
+            if (row == null) {
+                row = current.neighboursOf(item);
+            }
+            neighbours[item] = row.items;
+            similarities[item] = row.similarities;
+        }
+        return Model.pack(current.itemIds, norms, neighbours, similarities);
+    }
+
+    private interface SimilarityListener {
+        void similarity(int item, float similarity);
+    }
+
+    private static class Model {
+        private final int[] itemIds;
+        private final float[] norms;
+        private final int[] neighbourStart;
+        private final int[] neighbourIndex;
+        private final float[] neighbourSimilarity;
+
+        private Model(int[] itemIds, float[] norms, int[] neighbourStart, int[] neighbourIndex, float[] neighbourSimilarity) {
+            this.itemIds = itemIds;
+            this.norms = norms;
+            this.neighbourStart = neighbourStart;
+            this.neighbourIndex = neighbourIndex;
+            this.neighbourSimilarity = neighbourSimilarity;
+        }
+
+        private static Model pack(int[] itemIds, float[] norms, int[][] neighbours, float[][] similarities) {
+            int[] start = new int[itemIds.length + 1];
+            for (int item = 0; item < itemIds.length; item++) {
+                start[item + 1] = start[item] + neighbours[item].length;
+            }
+            int[] index = new int[start[itemIds.length]];
+            float[] similarity = new float[index.length];
+            for (int item = 0; item < itemIds.length; item++) {
+                System.arraycopy(neighbours[item], 0, index, start[item], neighbours[item].length);
+                System.arraycopy(similarities[item], 0, similarity, start[item], similarities[item].length);
+            }
+            return new Model(itemIds, norms, start, index, similarity);
+        }
+
+        private Model extend(int[] addedIds) {
+            if (addedIds.length == 0) {
+                return this;
+            }
+            int[] ids = new int[itemIds.length + addedIds.length];
+            int[] remap = new int[itemIds.length];
+            for (int i = 0, j = 0, k = 0; k < ids.length; k++) {
+                if (j >= addedIds.length || (i < itemIds.length && itemIds[i] < addedIds[j])) {
+                    remap[i] = k;
+                    ids[k] = itemIds[i++];
+                } else {
+                    ids[k] = addedIds[j++];
+                }
+            }
+
+            float[] extendedNorms = new float[ids.length];
+            int[][] neighbours = new int[ids.length][];
+            float[][] similarities = new float[ids.length][];
+            Arrays.fill(neighbours, new int[0]);
+            Arrays.fill(similarities, new float[0]);
+            for (int item = 0; item < itemIds.length; item++) {
+                extendedNorms[remap[item]] = norms[item];
+                int[] row = Arrays.copyOfRange(neighbourIndex, neighbourStart[item], neighbourStart[item + 1]);
+                for (int p = 0; p < row.length; p++) {
+                    row[p] = remap[row[p]];
+                }
+                neighbours[remap[item]] = row;
+                similarities[remap[item]] = Arrays.copyOfRange(neighbourSimilarity, neighbourStart[item], neighbourStart[item + 1]);
+            }
+            return pack(ids, extendedNorms, neighbours, similarities);
+        }
+
+        private int indexOf(int bookId) {
+            int index = Arrays.binarySearch(itemIds, bookId);
+            return index < 0 ? -1 : index;
+        }
+
+        private Neighbours neighboursOf(int item) {
+            return new Neighbours(Arrays.copyOfRange(neighbourIndex, neighbourStart[item], neighbourStart[item + 1]),
+                    Arrays.copyOfRange(neighbourSimilarity, neighbourStart[item], neighbourStart[item + 1]));
+        }
+    }
+
+    private static class Neighbours {
+        private int[] items;
+        private float[] similarities;
+
+        private Neighbours(int[] items, float[] similarities) {
+            this.items = items;
+            this.similarities = similarities;
+        }
+
+        private void link(int item, float similarity) {
+            unlink(item);
+            if (items.length >= NEIGHBOURS && similarity <= similarities[items.length - 1]) {
+                return;
+            }
+            int position = 0;
+            while (position < items.length && similarities[position] >= similarity) {
+                position++;
+            }
+            int length = Math.min(items.length + 1, NEIGHBOURS);
+            int[] newItems = new int[length];
+            float[] newSimilarities = new float[length];
+            System.arraycopy(items, 0, newItems, 0, position);
+            System.arraycopy(similarities, 0, newSimilarities, 0, position);
+            newItems[position] = item;
+            newSimilarities[position] = similarity;
+            System.arraycopy(items, position, newItems, position + 1, length - position - 1);
+            System.arraycopy(similarities, position, newSimilarities, position + 1, length - position - 1);
+            items = newItems;
+            similarities = newSimilarities;
+        }
+
+        private void unlink(int item) {
+            for (int p = 0; p < items.length; p++) {
+                if (items[p] == item) {
+                    int[] newItems = new int[items.length - 1];
+                    float[] newSimilarities = new float[items.length - 1];
+                    System.arraycopy(items, 0, newItems, 0, p);
+                    System.arraycopy(similarities, 0, newSimilarities, 0, p);
+                    System.arraycopy(items, p + 1, newItems, p, items.length - p - 1);
+                    System.arraycopy(similarities, p + 1, newSimilarities, p, items.length - p - 1);
+                    items = newItems;
+                    similarities = newSimilarities;
+                    return;
+                }
+            }
+        }
+    }
+
+    private static class RatingRows {
+        private int rowCount;
+        private int size;
+        private int[] rowStart = new int[64];
+        private int[] userIds = new int[64];
+        private int[] bookIds = new int[1024];
+        private float[] values = new float[1024];
+
+        private void add(int userId, int bookId, int rating) {
+            if (rowCount == 0 || userIds[rowCount - 1] != userId) {
+                finish();
+                if (rowCount + 1 >= rowStart.length) {
+                    rowStart = Arrays.copyOf(rowStart, rowStart.length * 2);
+                    userIds = Arrays.copyOf(userIds, userIds.length * 2);
+                }
+                userIds[rowCount] = userId;
+                rowStart[rowCount] = size;
+                rowCount++;
+            }
+            if (size == bookIds.length) {
+                bookIds = Arrays.copyOf(bookIds, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            bookIds[size] = bookId;
+            values[size++] = rating;
+            rowStart[rowCount] = size;
+        }
+
+        private void finish() {
+            if (rowCount == 0) {
+                return;
+            }
+            int from = rowStart[rowCount - 1];
+            float sum = 0;
+            for (int e = from; e < size; e++) {
+                sum += values[e];
+            }
+            float mean = (sum + NEUTRAL_RATING * PRIOR_RATINGS) / (size - from + PRIOR_RATINGS);
+            for (int e = from; e < size; e++) {
+                values[e] -= mean;
+            }
+        }
+
+        private int rowLength(int row) {
+            return rowStart[row + 1] - rowStart[row];
+        }
+
+        private int[] itemIndexes(int[] itemIds) {
+            int[] indexes = new int[size];
+            for (int e = 0; e < size; e++) {
+                int index = Arrays.binarySearch(itemIds, bookIds[e]);
+                indexes[e] = index < 0 ? -1 : index;
+            }
+            return indexes;
+        }
+    }
+
+    private static class Workspace {
+        private final float[] dot;
+        private final int[] coRaters;
+        private final int[] touched;
+        private int touchedCount;
+
+        private Workspace(int itemCount) {
+            dot = new float[itemCount];
+            coRaters = new int[itemCount];
+            touched = new int[itemCount];
+        }
+
+        private void accumulate(RatingRows rows, int[] entryItems, int row, int item, float value) {
+            if (rows.rowLength(row) > MAX_USER_ITEMS) {
+                return;
+            }
+            for (int e = rows.rowStart[row]; e < rows.rowStart[row + 1]; e++) {
+                int other = entryItems[e];
+                if (other < 0 || other == item) {
+                    continue;
+                }
+                if (coRaters[other]++ == 0) {
+                    touched[touchedCount++] = other;
+                }
+                dot[other] += value * rows.values[e];
+            }
+        }
+
+        private TopK collect(int item, float norm, float[] norms) {
+            return collect(item, norm, norms, null);
+        }
+
+        private TopK collect(int item, float norm, float[] norms, SimilarityListener listener) {
+            TopK top = new TopK(NEIGHBOURS);
+            for (int t = 0; t < touchedCount; t++) {
+                int other = touched[t];
+                int shared = coRaters[other];
+                if (shared >= MIN_CO_RATERS && norm > 0 && norms[other] > 0) {
+                    float similarity = dot[other] / (norm * norms[other]) * shared / (shared + SHRINKAGE);
+                    if (similarity > 0) {
+                        top.offer(other, similarity);
+                        if (listener != null) {
+                            listener.similarity(other, similarity);
+                        }
+                    }
+                }
+                dot[other] = 0;
+                coRaters[other] = 0;
+            }
+            touchedCount = 0;
+            return top;
+        }
+    }
+
+    private static class TopK {
+        private final int[] ids;
+        private final float[] scores;
+        private int size;
+        private boolean sorted;
+
+        private TopK(int capacity) {
+            ids = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        private void offer(int id, float score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (ids.length > 0 && score > scores[0]) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        private int[] sortedIds() {
+            sortDescending();
+            return Arrays.copyOf(ids, size);
+        }
+
+        private float[] sortedScores() {
+            sortDescending();
+            return Arrays.copyOf(scores, size);
+        }
+
+        private void sortDescending() {
+            if (sorted) {
+                return;
+            }
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+            sorted = true;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (scores[parent] <= scores[index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            siftDown(index, size);
+        }
+
+        private void siftDown(int index, int limit) {
+            while (true) {
+                int smallest = index;
+                int left = index * 2 + 1;
+                int right = left + 1;
+                if (left < limit && scores[left] < scores[smallest]) {
+                    smallest = left;
+                }
+                if (right < limit && scores[right] < scores[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(smallest, index);
+                index = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+
+    private static class ScoreTable {
+        private final int[] keys;
+        private final float[] scores;
+        private final float[] weights;
+        private final int mask;
+
+        private ScoreTable(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+            keys = new int[capacity];
+            scores = new float[capacity];
+            weights = new float[capacity];
+            mask = capacity - 1;
+            Arrays.fill(keys, -1);
+        }
+
+        private void add(int key, float score, float weight) {
+            int slot = (key * 0x9E3779B9) >>> 1 & mask;
+            while (keys[slot] != -1 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            scores[slot] += score;
+            weights[slot] += weight;
+        }
+    }
+}
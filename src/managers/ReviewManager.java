@@ -1,4 +1,6 @@
 package src.managers;
+import src.models.Review;
+import src.models.UserContext;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -7,12 +9,32 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class ReviewManager {
+    static final String HAS_REVIEWED_QUERY = "SELECT COUNT(*) FROM reviews WHERE user_id = ? AND book_id = ?";
+
+    static final String REVIEWS_OF_BOOK_QUERY = """
+        SELECT u.username, r.rating, r.review_text, DATE_FORMAT(r.date, '%Y-%m-%d') AS review_date
+        FROM reviews r JOIN users u ON r.user_id = u.user_id
+        WHERE r.book_id = ?
+        ORDER BY r.date
+    """;
+
+    static final String AVERAGE_RATING_QUERY = "SELECT AVG(rating) FROM reviews WHERE user_id = ?";
+
     private final DatabaseHelper dbHelper = new DatabaseHelper();
+    private final BookCache bookCache = BookCache.getInstance();
+    private final ReadingStatsStore statsStore = ReadingStatsStore.getInstance();
+    private final WriteBehindQueue writeQueue = WriteBehindQueue.getInstance();
+    private final UserManager userManager = UserManager.getInstance();
+    private final RecommendationEngine recommendations = RecommendationEngine.getInstance();
 
     public boolean hasUserReviewedBook(int userId, int bookId) {
-        String query = "SELECT COUNT(*) FROM reviews WHERE user_id = ? AND book_id = ?";
-        try (Connection connection = dbHelper.connect();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+        UserContext context = userManager.getUserContext(userId);
+        if (context != null) {
+            return context.hasRated(bookId);
+        }
+
+        try (Connection connection = dbHelper.connectAfterOwnWrites();
+             PreparedStatement preparedStatement = connection.prepareStatement(HAS_REVIEWED_QUERY)) {
 
             preparedStatement.setInt(1, userId);
             preparedStatement.setInt(2, bookId);
@@ -31,60 +53,43 @@ public class ReviewManager {
         String query = "INSERT INTO reviews (user_id, book_id, rating, review_text) VALUES (?, ?, ?, ?) " +
                 "ON DUPLICATE KEY UPDATE rating = ?, review_text = ?";
 
-        try (Connection connection = dbHelper.connect();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-
-            preparedStatement.setInt(1, userId);
-            preparedStatement.setInt(2, bookId);
-            preparedStatement.setInt(3, rating);
-            preparedStatement.setString(4, review);
-            preparedStatement.setInt(5, rating);
-            preparedStatement.setString(6, review);
-
-            preparedStatement.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
+        UserContext context = userManager.getUserContext(userId);
+        Integer previousRating = context != null ? context.getRating(bookId) : null;
+        statsStore.reviewSaved(userId, bookId, rating);
+        if (context != null) {
+            context.saveRating(bookId, rating);
         }
+
+        writeQueue.enqueue(query, new Object[]{userId, bookId, rating, review, rating, review}, saved -> {
+            bookCache.invalidate(bookId);
+            if (saved) {
+                statsStore.writeApplied(userId);
+                recommendations.ratingChanged(bookId);
+            } else {
+                statsStore.invalidate(userId);
+                if (context != null) {
+                    context.undoRating(bookId, rating, previousRating);
+                }
+            }
+        });
     }
 
-    public List<String> loadReviews(int bookId) {
-        List<String> reviews = new ArrayList<>();
-        String query = "SELECT u.username, r.rating, r.review_text " +
-                "FROM reviews r JOIN users u ON r.user_id = u.user_id " +
-                "WHERE r.book_id = ?";
+    public List<Review> getReviews(int bookId) {
+        List<Review> reviews = new ArrayList<>();
 
-        try (Connection connection = dbHelper.connect();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+        try (Connection connection = dbHelper.connectAfterOwnWrites();
+             PreparedStatement preparedStatement = connection.prepareStatement(REVIEWS_OF_BOOK_QUERY)) {
 
             preparedStatement.setInt(1, bookId);
             ResultSet resultSet = preparedStatement.executeQuery();
 
             while (resultSet.next()) {
-                String username = resultSet.getString("username");
-                int rating = resultSet.getInt("rating");
-                String reviewText = resultSet.getString("review_text");
-
-                StringBuilder sb = new StringBuilder();
-                sb.append("┌──────────────────────────────────────────────┐\n");
-                sb.append(String.format("│ %-44s │\n", "Username: " + username));
-                sb.append("├──────────────────────────────────────────────┤\n");
-
-                int lineWidth = 44;
-                String[] words = reviewText.split(" ");
-                StringBuilder line = new StringBuilder("│ Rating & Review: " + rating + "/5 - ");
-
-                for (String word : words) {
-                    if (line.length() + word.length() + 1 > lineWidth) {
-                        sb.append(String.format("%-47s│\n", line.toString()));
-                        line = new StringBuilder("│ " + word + " ");
-                    } else {
-                        line.append(word).append(" ");
-                    }
-                }
-                sb.append(String.format("%-47s│\n", line.toString()));
-                sb.append("└──────────────────────────────────────────────┘");
-
-                reviews.add(sb.toString());
+                reviews.add(new Review(
+                        resultSet.getString("username"),
+                        resultSet.getInt("rating"),
+                        resultSet.getString("review_text"),
+                        resultSet.getString("review_date")
+                ));
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -93,11 +98,45 @@ public class ReviewManager {
         return reviews;
     }
 
+    public List<String> loadReviews(int bookId) {
+        List<String> reviews = new ArrayList<>();
+
+        for (Review review : getReviews(bookId)) {
+            String username = review.getUsername();
+            int rating = review.getRating();
+            String reviewText = review.getReviewText();
+
+            StringBuilder sb = new StringBuilder();
+            sb.append("┌──────────────────────────────────────────────┐\n");
+            sb.append(String.format("│ %-44s │\n", "Username: " + username));
+            sb.append("├──────────────────────────────────────────────┤\n");
+
+            int lineWidth = 44;
+            String[] words = reviewText.split(" ");
+            StringBuilder line = new StringBuilder("│ Rating & Review: " + rating + "/5 - ");
+
+            for (String word : words) {
+                if (line.length() + word.length() + 1 > lineWidth) {
+                    sb.append(String.format("%-47s│\n", line.toString()));
+                    line = new StringBuilder("│ " + word + " ");
+                } else {
+                    line.append(word).append(" ");
+                }
+            }
+            sb.append(String.format("%-47s│\n", line.toString()));
+            sb.append("└──────────────────────────────────────────────┘");
+
+            reviews.add(sb.toString());
+        }
+
+        return reviews;
+    }
+
     public int getTotalReviews(int userId) {
         String query = "SELECT COUNT(*) FROM reviews WHERE user_id = ?";
         int totalReviews = 0;
 
-        try (Connection conn = dbHelper.connect();
+        try (Connection conn = dbHelper.connectAfterOwnWrites();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setInt(1, userId);
@@ -114,11 +153,10 @@ public class ReviewManager {
     }
 
     public double getAverageRating(int userId) {
-        String query = "SELECT AVG(rating) FROM reviews WHERE user_id = ?";
         double averageRating = 0.0;
 
-        try (Connection conn = dbHelper.connect();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = dbHelper.connectAfterOwnWrites();
+             PreparedStatement stmt = conn.prepareStatement(AVERAGE_RATING_QUERY)) {
 
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
@@ -141,7 +179,7 @@ public class ReviewManager {
         WHERE book_id = ? AND user_id = ?
     """;
 
-        try (Connection conn = dbHelper.connect();
+        try (Connection conn = dbHelper.connectAfterOwnWrites();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setInt(1, bookId);
@@ -162,23 +200,39 @@ public class ReviewManager {
 
 
     public void removeReview(int bookId, int userId) {
+        try {
+            if (deleteReview(bookId, userId)) {
+                System.out.println("Review successfully removed.");
+            } else {
+                System.out.println("Review not found or could not be removed.");
+            }
+        } catch (Exception e) {
+            System.out.println("An error occurred while removing the review.");
+            e.printStackTrace();
+        }
+    }
+
+    public boolean deleteReview(int bookId, int userId) throws SQLException {
         String query = "DELETE FROM reviews WHERE book_id = ? AND user_id = ?";
 
-        try (Connection conn = dbHelper.connect();
+        try (Connection conn = dbHelper.connectAfterOwnWrites();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setInt(1, bookId);
             stmt.setInt(2, userId);
 
             int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected > 0) {
-                System.out.println("Review successfully removed.");
-            } else {
-                System.out.println("Review not found or could not be removed.");
+            bookCache.invalidate(bookId);
+            if (rowsAffected == 0) {
+                return false;
             }
-        } catch (Exception e) {
-            System.out.println("An error occurred while removing the review.");
-            e.printStackTrace();
+            statsStore.reviewRemoved(userId, bookId);
+            recommendations.ratingChanged(bookId);
+            UserContext context = userManager.getUserContext(userId);
+            if (context != null) {
+                context.removeRating(bookId);
+            }
+            return true;
         }
     }
 
@@ -0,0 +1,148 @@
+package src.managers;
+import src.models.UserContext;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class SessionRegistry {
+    private static final int TOKEN_BYTES = 24;
+    private static final long IDLE_TIMEOUT_MILLIS = Long.getLong("plotpoint.session.idleTimeoutMs", 30L * 60 * 1000);
+    private static final long MAX_SWEEP_INTERVAL_MILLIS = 60_000;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Session> sessionsByToken = new ConcurrentHashMap<>();
+    private final Map<Integer, SharedContext> contextsByUser = new ConcurrentHashMap<>();
+    private ScheduledExecutorService sweeper;
+
+    private SessionRegistry() {}
+
+    private static class Holder {
+        private static final SessionRegistry INSTANCE = new SessionRegistry();
+    }
+
+    public static SessionRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public String openExisting(int userId, boolean expiring) {
+        SharedContext shared = contextsByUser.computeIfPresent(userId, (id, existing) -> {
+            existing.sessions++;
+            return existing;
+        });
+        return shared != null ? register(shared.context, expiring) : null;
+    }
+
+    public String open(UserContext loaded, boolean expiring) {
+        SharedContext shared = contextsByUser.compute(loaded.getUser().getUserId(), (userId, existing) -> {
+            SharedContext context = existing != null ? existing : new SharedContext(loaded);
+            context.sessions++;
+            return context;
+        });
+        return register(shared.context, expiring);
+    }
+
+    private String register(UserContext context, boolean expiring) {
+        String token = newToken();
+        sessionsByToken.put(token, new Session(context, expiring));
+        if (expiring) {
+            startSweeper();
+        }
+        return token;
+    }
+
+    public UserContext get(String token) {
+        Session session = token == null ? null : sessionsByToken.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (session.isExpired(now)) {
+            close(token);
+            return null;
+        }
+        session.lastAccess = now;
+        return session.context;
+    }
+
+    public UserContext contextOf(int userId) {
+        SharedContext shared = contextsByUser.get(userId);
+        return shared != null ? shared.context : null;
+    }
+
+    public void forEachContext(Consumer<UserContext> action) {
+        for (SharedContext shared : contextsByUser.values()) {
+            action.accept(shared.context);
+        }
+    }
+
+    public void close(String token) {
+        Session session = sessionsByToken.remove(token);
+        if (session != null) {
+            int userId = session.context.getUser().getUserId();
+            if (contextsByUser.computeIfPresent(userId, (id, shared) -> --shared.sessions == 0 ? null : shared) == null) {
+                ReadingStatsStore.getInstance().invalidate(userId);
+            }
+        }
+    }
+
+    public int getSessionCount() {
+        return sessionsByToken.size();
+    }
+
+    private synchronized void startSweeper() {
+        if (sweeper != null) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "plotpoint-session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1_000, Math.min(IDLE_TIMEOUT_MILLIS, MAX_SWEEP_INTERVAL_MILLIS));
+        sweeper.scheduleWithFixedDelay(this::closeExpired, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void closeExpired() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Session> entry : sessionsByToken.entrySet()) {
+            if (entry.getValue().isExpired(now)) {
+                close(entry.getKey());
+            }
+        }
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static class Session {
+        private final UserContext context;
+        private final boolean expiring;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private Session(UserContext context, boolean expiring) {
+            this.context = context;
+            this.expiring = expiring;
+        }
+
+        private boolean isExpired(long now) {
+            return expiring && now - lastAccess > IDLE_TIMEOUT_MILLIS;
+        }
+    }
+
+    private static class SharedContext {
+        private final UserContext context;
+        private int sessions;
+
+        private SharedContext(UserContext context) {
+            this.context = context;
+        }
+    }
+}
@@ -1,20 +1,62 @@
 package src.managers;
 import src.models.Book;
+import src.models.ReadingStats;
+import src.models.User;
+import src.models.UserContext;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 public class ShelfManager {
+    static final String SHELF_OF_BOOK_QUERY = """
+        SELECT s.shelf_name
+        FROM shelf_books sb
+        JOIN shelves s ON sb.shelf_id = s.shelf_id
+        WHERE sb.user_id = ? AND sb.book_id = ?
+    """;
+
+    static final String BOOKS_IN_SHELF_QUERY = """
+        SELECT b.book_id, b.title, b.author, b.publication_date, b.page_count, b.average_rating, b.synopsis, b.rating_count
+        FROM books b
+        JOIN shelf_books sb ON b.book_id = sb.book_id
+        JOIN shelves s ON sb.shelf_id = s.shelf_id
+        WHERE s.user_id = ? AND s.shelf_name = ?
+    """;
+
+    static final String BOOK_DETAILS_IN_SHELF_QUERY = """
+        SELECT sb.date_added, r.rating
+        FROM shelf_books sb
+        JOIN shelves s ON sb.shelf_id = s.shelf_id
+        LEFT JOIN reviews r ON sb.book_id = r.book_id AND s.user_id = r.user_id
+        WHERE sb.book_id = ? AND s.shelf_name = ? AND s.user_id = ?
+    """;
+
+    static final String REMOVE_FROM_SHELF_SQL = "DELETE FROM shelf_books WHERE user_id = ? AND book_id = ? AND shelf_id = ?";
+
     private final DatabaseHelper dbHelper = new DatabaseHelper();
     private final UserManager userManager = UserManager.getInstance();
+    private final BookCache bookCache = BookCache.getInstance();
+    private final ReadingStatsStore statsStore = ReadingStatsStore.getInstance();
+    private final WriteBehindQueue writeQueue = WriteBehindQueue.getInstance();
 
     public List<String> getUserShelves(int userId) {
-        List<String> shelves = new ArrayList<>();
-        String query = "SELECT shelf_name FROM shelves WHERE user_id = ?";
+        return new ArrayList<>(getShelfIds(userId).keySet());
+    }
+
+    private Map<String, Integer> getShelfIds(int userId) {
+        UserContext context = userManager.getUserContext(userId);
+        if (context != null) {
+            return context.getShelfIds();
+        }
+
+        Map<String, Integer> shelfIds = new LinkedHashMap<>();
+        String query = "SELECT shelf_id, shelf_name FROM shelves WHERE user_id = ? ORDER BY shelf_id";
 
         try (Connection connection = dbHelper.connect();
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {
@@ -23,27 +65,20 @@ public class ShelfManager {
             ResultSet resultSet = preparedStatement.executeQuery();
 
             while (resultSet.next()) {
-                shelves.add(resultSet.getString("shelf_name"));
+                shelfIds.put(resultSet.getString("shelf_name"), resultSet.getInt("shelf_id"));
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return shelves;
+        return shelfIds;
     }
 
     public String isBookInAnyShelf(int userId, int bookId) {
-        String query = """
-        SELECT s.shelf_name
-        FROM shelf_books sb
-        JOIN shelves s ON sb.shelf_id = s.shelf_id
-        WHERE sb.book_id = ? AND s.user_id = ?
-    """;
-
-        try (Connection connection = dbHelper.connect();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+        try (Connection connection = dbHelper.connectAfterOwnWrites();
+             PreparedStatement preparedStatement = connection.prepareStatement(SHELF_OF_BOOK_QUERY)) {
 
-            preparedStatement.setInt(1, bookId);
-            preparedStatement.setInt(2, userId);
+            preparedStatement.setInt(1, userId);
+            preparedStatement.setInt(2, bookId);
 
             ResultSet resultSet = preparedStatement.executeQuery();
 
@@ -57,54 +92,54 @@ public class ShelfManager {
     }
 
     public void addBookToShelf(int userId, Book book, String shelfName, Scanner input) {
-
-        String existingShelf = isBookInAnyShelf(userId, book.getBookId());
-
-        if (existingShelf != null && !existingShelf.equals(shelfName)) {
-            removeBookFromShelf(userId, book.getBookId(), existingShelf);
+        if (!moveBookToShelf(userId, book, shelfName)) {
+            System.out.println("Shelf not found.");
+            return;
         }
+        System.out.println("Book added to your " + shelfName + " shelf!");
+        System.out.print("Press enter to return.");
+        input.nextLine();
+        input.nextLine();
+    }
 
-        String shelfQuery = "SELECT shelf_id FROM shelves WHERE user_id = ? AND shelf_name = ?";
-        String insertQuery = "INSERT INTO shelf_books (shelf_id, book_id) VALUES (?, ?)";
+    public boolean moveBookToShelf(int userId, Book book, String shelfName) {
+        Integer shelfId = getShelfIds(userId).get(shelfName);
+        if (shelfId == null) {
+            return false;
+        }
 
-        try (Connection connection = dbHelper.connect();
-             PreparedStatement shelfStmt = connection.prepareStatement(shelfQuery);
-             PreparedStatement insertStmt = connection.prepareStatement(insertQuery)) {
+        String upsertQuery = """
+            INSERT INTO shelf_books (user_id, shelf_id, book_id) VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                date_added = IF(shelf_books.shelf_id = VALUES(shelf_id), shelf_books.date_added, CURRENT_TIMESTAMP),
+                shelf_id = VALUES(shelf_id)
+        """;
 
-            shelfStmt.setInt(1, userId);
-            shelfStmt.setString(2, shelfName);
-            ResultSet resultSet = shelfStmt.executeQuery();
+        UserContext context = userManager.getUserContext(userId);
+        String previousShelf = context != null ? context.getShelfOf(book.getBookId()) : null;
+        statsStore.bookShelved(userId, book, shelfName);
+        if (context != null) {
+            context.placeBook(book.getBookId(), shelfName);
+        }
 
-            if (resultSet.next()) {
-                int shelfId = resultSet.getInt("shelf_id");
-
-                insertStmt.setInt(1, shelfId);
-                insertStmt.setInt(2, book.getBookId());
-                insertStmt.executeUpdate();
-                System.out.println("Book added to your " + shelfName + " shelf!");
-                System.out.print("Press enter to return.");
-                input.nextLine();
-                input.nextLine();
+        writeQueue.enqueue(upsertQuery, new Object[]{userId, shelfId, book.getBookId()}, saved -> {
+            if (saved) {
+                statsStore.writeApplied(userId);
             } else {
-                System.out.println("Shelf not found.");
+                statsStore.invalidate(userId);
+                if (context != null) {
+                    context.undoPlacement(book.getBookId(), shelfName, previousShelf);
+                }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        });
+        return true;
     }
 
     public List<Book> getBooksInShelf(int userId, String shelfName) {
         List<Book> booksInShelf = new ArrayList<>();
-        String query = """
-            SELECT b.book_id, b.title, b.author, b.publication_date, b.page_count, b.average_rating, b.synopsis
-            FROM books b
-            JOIN shelf_books sb ON b.book_id = sb.book_id
-            JOIN shelves s ON sb.shelf_id = s.shelf_id
-            WHERE s.user_id = ? AND s.shelf_name = ?
-        """;
 
-        try (Connection connection = dbHelper.connect();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+        try (Connection connection = dbHelper.connectAfterOwnWrites();
+             PreparedStatement preparedStatement = connection.prepareStatement(BOOKS_IN_SHELF_QUERY)) {
 
             preparedStatement.setInt(1, userId);
             preparedStatement.setString(2, shelfName);
@@ -119,8 +154,9 @@ public class ShelfManager {
                 int pageCount = resultSet.getInt("page_count");
                 double averageRating = resultSet.getDouble("average_rating");
                 String synopsis = resultSet.getString("synopsis");
+                int reviewCount = resultSet.getInt("rating_count");
 
-                Book book = new Book(bookId, title, author, publicationDate, pageCount, averageRating, synopsis);
+                Book book = bookCache.refresh(new Book(bookId, title, author, publicationDate, pageCount, averageRating, synopsis, reviewCount));
                 booksInShelf.add(book);
             }
         } catch (SQLException e) {
@@ -133,16 +169,9 @@ public class ShelfManager {
     public String[] getBookDetailsInShelf(int bookId, String shelfName, int userId) {
         String dateAdded = "";
         String userRating = " - ";
-        String query = """
-        SELECT sb.date_added, r.rating
-        FROM shelf_books sb
-        JOIN shelves s ON sb.shelf_id = s.shelf_id
-        LEFT JOIN reviews r ON sb.book_id = r.book_id AND s.user_id = r.user_id
-        WHERE sb.book_id = ? AND s.shelf_name = ? AND s.user_id = ?;
-    """;
 
-        try (Connection conn = dbHelper.connect();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = dbHelper.connectAfterOwnWrites();
+             PreparedStatement stmt = conn.prepareStatement(BOOK_DETAILS_IN_SHELF_QUERY)) {
 
             stmt.setInt(1, bookId);
             stmt.setString(2, shelfName);
@@ -162,161 +191,104 @@ public class ShelfManager {
     }
 
     public void removeBookFromShelf(int userId, int bookId, String shelfName) {
-        String query = """
-        DELETE sb
-        FROM shelf_books sb
-        JOIN shelves s ON sb.shelf_id = s.shelf_id
-        WHERE sb.book_id = ? AND s.user_id = ? AND s.shelf_name = ?
-    """;
-
-        try (Connection connection = dbHelper.connect();
-             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-
-            preparedStatement.setInt(1, bookId);
-            preparedStatement.setInt(2, userId);
-            preparedStatement.setString(3, shelfName);
-
-            int rowsAffected = preparedStatement.executeUpdate();
+        Integer shelfId = getShelfIds(userId).get(shelfName);
+        if (shelfId == null) {
+            return;
+        }
 
-        } catch (SQLException e) {
-            System.err.println("Error removing book from shelf: " + e.getMessage());
+        UserContext context = userManager.getUserContext(userId);
+        boolean wasShelved = context != null && shelfName.equals(context.getShelfOf(bookId));
+        statsStore.bookUnshelved(userId, bookId, shelfName);
+        if (context != null) {
+            context.removeBook(bookId, shelfName);
         }
-    }
 
-    public void showMostReadGenres(Scanner input) {
-        String query = """
-        SELECT tags.tag_name, COUNT(*) AS count
-        FROM shelf_books
-        JOIN shelves ON shelf_books.shelf_id = shelves.shelf_id
-        JOIN book_tags ON shelf_books.book_id = book_tags.book_id
-        JOIN tags ON book_tags.tag_name = tags.tag_name
-        WHERE shelves.shelf_name = 'Read' AND tags.tag_type = 'genre' AND shelves.user_id = ?
-        GROUP BY tags.tag_name
-        ORDER BY count DESC;
-    """;
+        writeQueue.enqueue(REMOVE_FROM_SHELF_SQL, new Object[]{userId, bookId, shelfId}, saved -> {
+            if (saved) {
+                statsStore.writeApplied(userId);
+            } else {
+                statsStore.invalidate(userId);
+                if (wasShelved) {
+                    context.undoRemoval(bookId, shelfName);
+                }
+            }
+        });
+    }
 
-        try (Connection connection = dbHelper.connect();
-             PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, userManager.getLoggedInUser().getUserId());
-            ResultSet rs = stmt.executeQuery();
+    public ReadingStats getReadingStats(User user) {
+        return statsStore.getStats(user.getUserId());
+    }
 
-            int totalReads = 0;
-            List<String[]> genreData = new ArrayList<>();
-            while (rs.next()) {
-                int count = rs.getInt("count");
-                totalReads += count;
-                genreData.add(new String[]{rs.getString("tag_name"), String.valueOf(count)});
-            }
+    public void showMostReadGenres(User user, Scanner input) {
+        ReadingStats stats = getReadingStats(user);
+        List<Map.Entry<String, Integer>> genreData = stats.getMostReadGenres();
 
-            for (int i = 0; i < genreData.size(); i++) {
-                String tagName = genreData.get(i)[0];
-                int count = Integer.parseInt(genreData.get(i)[1]);
-                double percentage = (totalReads > 0) ? (count / (double) totalReads) * 100 : 0;
+        int totalReads = 0;
+        for (Map.Entry<String, Integer> genre : genreData) {
+            totalReads += genre.getValue();
+        }
 
-                String readText = count == 1 ? "read" : "reads";
-                String genreLine = String.format("│ [%d] %-18s %3d %-8s %7.1f%% │",
-                        (i + 1), tagName, count, readText, percentage);
+        for (int i = 0; i < genreData.size(); i++) {
+            String tagName = genreData.get(i).getKey();
+            int count = genreData.get(i).getValue();
+            double percentage = (totalReads > 0) ? (count / (double) totalReads) * 100 : 0;
 
-                System.out.println(genreLine);
-            }
-            System.out.println("└──────────────────────────────────────────────┘");
+            String readText = count == 1 ? "read" : "reads";
+            String genreLine = String.format("│ [%d] %-18s %3d %-8s %7.1f%% │",
+                    (i + 1), tagName, count, readText, percentage);
 
-        } catch (SQLException e) {
-            e.printStackTrace();
+            System.out.println(genreLine);
         }
+        System.out.println("└──────────────────────────────────────────────┘");
+
         System.out.print("\n Press enter to return.");
         input.nextLine();
         input.nextLine();
     }
 
-    public void showBooksReadPerMonth(Scanner input) {
-        String query = """
-        SELECT DATE_FORMAT(date_added, '%Y-%m') AS month, COUNT(*) AS count
-        FROM shelf_books
-        JOIN shelves ON shelf_books.shelf_id = shelves.shelf_id
-        WHERE shelves.shelf_name = 'Read' AND shelves.user_id = ?
-        GROUP BY month
-        ORDER BY month;
-    """;
-        try (Connection connection = dbHelper.connect();
-             PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, userManager.getLoggedInUser().getUserId());
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                String month = rs.getString("month");
-                int count = rs.getInt("count");
-                String bookText = count == 1 ? "book" : "books";
-                System.out.printf("│  %-10s -   %-3d %-5s                    │\n", month, count, bookText);
-            }
-
-            System.out.println("└──────────────────────────────────────────────┘");
+    public void showBooksReadPerMonth(User user, Scanner input) {
+        ReadingStats stats = getReadingStats(user);
 
-        } catch (SQLException e) {
-            e.printStackTrace();
+        for (Map.Entry<String, Integer> entry : stats.getBooksReadPerMonth().entrySet()) {
+            String month = entry.getKey();
+            int count = entry.getValue();
+            String bookText = count == 1 ? "book" : "books";
+            System.out.printf("│  %-10s -   %-3d %-5s                    │\n", month, count, bookText);
         }
 
+        System.out.println("└──────────────────────────────────────────────┘");
+
         System.out.print("\nPress enter to return.");
         input.nextLine();
         input.nextLine();
     }
 
-    public void showPagesReadPerMonth(Scanner input) {
-        String query = """
-        SELECT DATE_FORMAT(date_added, '%Y-%m') AS month, SUM(books.page_count) AS pages
-        FROM shelf_books
-        JOIN shelves ON shelf_books.shelf_id = shelves.shelf_id
-        JOIN books ON shelf_books.book_id = books.book_id
-        WHERE shelves.shelf_name = 'Read' AND shelves.user_id = ?
-        GROUP BY month
-        ORDER BY month;
-    """;
-        try (Connection connection = dbHelper.connect();
-             PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, userManager.getLoggedInUser().getUserId());
-            ResultSet rs = stmt.executeQuery();
+    public void showPagesReadPerMonth(User user, Scanner input) {
+        ReadingStats stats = getReadingStats(user);
 
-            while (rs.next()) {
-                String month = rs.getString("month");
-                int pages = rs.getInt("pages");
-                System.out.printf("│ %-10s -  %-4d pages                     │\n", month, pages);
-            }
+        for (Map.Entry<String, Integer> entry : stats.getPagesReadPerMonth().entrySet()) {
+            String month = entry.getKey();
+            int pages = entry.getValue();
+            System.out.printf("│ %-10s -  %-4d pages                     │\n", month, pages);
+        }
 
-            System.out.println("└──────────────────────────────────────────────┘");
+        System.out.println("└──────────────────────────────────────────────┘");
 
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
         System.out.print("\nPress enter to return.");
         input.nextLine();
         input.nextLine();
     }
 
-    public void showAverageRatingPerMonth(Scanner input) {
-        String query = """
-        SELECT DATE_FORMAT(reviews.date, '%Y-%m') AS month, AVG(reviews.rating) AS avg_rating
-        FROM reviews
-        JOIN shelves ON reviews.user_id = shelves.user_id
-        JOIN shelf_books ON shelves.shelf_id = shelf_books.shelf_id
-        WHERE shelves.shelf_name = 'Read' AND shelves.user_id = ?
-        GROUP BY month
-        ORDER BY month;
-    """;
-        try (Connection connection = dbHelper.connect();
-             PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, userManager.getLoggedInUser().getUserId());
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                String month = rs.getString("month");
-                double avgRating = rs.getDouble("avg_rating");
-                System.out.printf("│ %-10s -   %-4.2f rating                   │\n", month, avgRating);
-            }
-            System.out.println("└──────────────────────────────────────────────┘");
+    public void showAverageRatingPerMonth(User user, Scanner input) {
+        ReadingStats stats = getReadingStats(user);
 
-        } catch (SQLException e) {
-            e.printStackTrace();
+        for (Map.Entry<String, Double> entry : stats.getAverageRatingPerMonth().entrySet()) {
+            String month = entry.getKey();
+            double avgRating = entry.getValue();
+            System.out.printf("│ %-10s -   %-4.2f rating                   │\n", month, avgRating);
         }
+        System.out.println("└──────────────────────────────────────────────┘");
+
         System.out.print("\nPress enter to return.");
         input.nextLine();
         input.nextLine();
@@ -331,7 +303,7 @@ public class ShelfManager {
             WHERE s.user_id = ? AND s.shelf_name = 'Read'
         """;
 
-        try (Connection conn = dbHelper.connect();
+        try (Connection conn = dbHelper.connectAfterOwnWrites();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setInt(1, userId);
@@ -0,0 +1,279 @@
+package src.managers;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class SlowQueryLog {
+    private static final Pattern COMPARED_COLUMN = Pattern.compile("(?i)(\\w+)`?\\s*(?:=|<>|!=|LIKE)\\s*$");
+    private static final Pattern INSERT_COLUMNS = Pattern.compile(
+            "(?is)INSERT\\s+(?:IGNORE\\s+)?INTO\\s+\\S+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(([^)]*)\\)");
+    private static final Pattern EXPLAINABLE = Pattern.compile("(?is)\\s*(SELECT|INSERT|UPDATE|DELETE|REPLACE|WITH)\\b.*");
+    private static final String SENSITIVE_COLUMN = "password";
+    private static final String REDACTED = "'<redacted>'";
+    private static final int MAX_PENDING_ENTRIES = 1_000;
+    private static final int MAX_VALUE_LENGTH = 200;
+
+    private static final SlowQueryLog instance = new SlowQueryLog(
+            Long.getLong("plotpoint.slowQuery.thresholdMs", 250L),
+            Path.of(System.getProperty("plotpoint.slowQuery.file", "logs/slow-queries.log")),
+            Long.getLong("plotpoint.slowQuery.maxBytes", 10L * 1024 * 1024),
+            Integer.getInteger("plotpoint.slowQuery.files", 5),
+            Long.getLong("plotpoint.slowQuery.explainIntervalMs", 600_000L)
+    );
+
+    private final long thresholdNanos;
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+    private final long explainIntervalMillis;
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+    private final ExecutorService writer;
+    private final AtomicLong slowQueries = new AtomicLong();
+    private final AtomicLong droppedEntries = new AtomicLong();
+
+    public SlowQueryLog(long thresholdMillis, Path file, long maxBytes, int maxFiles, long explainIntervalMillis) {
+        this.thresholdNanos = thresholdMillis < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+        this.explainIntervalMillis = explainIntervalMillis;
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(MAX_PENDING_ENTRIES), runnable -> {
+            Thread thread = new Thread(runnable, "plotpoint-slow-query-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static SlowQueryLog getInstance() {
+        return instance;
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    public void record(String queryName, String sql, SortedMap<Integer, Object> parameters, long elapsedNanos,
+                       long rows, String error) {
+        if (sql == null || sql.stripLeading().regionMatches(true, 0, "EXPLAIN", 0, 7)) {
+            return;
+        }
+        slowQueries.incrementAndGet();
+        Object[] values = parameters.values().toArray();
+        String entry = formatEntry(queryName, sql, redact(sql, parameters), elapsedNanos, rows, error);
+        try {
+            writer.execute(() -> write(entry, sql, values));
+        } catch (RejectedExecutionException e) {
+            droppedEntries.incrementAndGet();
+        }
+    }
+
+    private String formatEntry(String queryName, String sql, List<String> parameters, long elapsedNanos, long rows, String error) {
+        StringBuilder entry = new StringBuilder();
+        entry.append(String.format("# %s | %s | %.1f ms | rows=%s | action=%s | thread=%s%n",
+                Instant.now(), queryName, elapsedNanos / 1e6, rows < 0 ? "?" : Long.toString(rows),
+                callingAction(), Thread.currentThread().getName()));
+        if (error != null) {
+            entry.append("# error: ").append(error).append('\n');
+        }
+        entry.append(sql.strip().replaceAll("\\s*\\n\\s*", "\n")).append(";\n");
+        if (!parameters.isEmpty()) {
+            entry.append("# params: ").append(parameters).append('\n');
+        }
+        return entry.toString();
+    }
+
+    private static String callingAction() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("src.menus.")
+                        || frame.getClassName().startsWith("src.server.")
+                        || frame.getClassName().startsWith("src.bench."))
+                .findFirst()
+                .map(frame -> {
+                    String className = frame.getClassName();
+                    return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                })
+                .orElse("none"));
+    }
+
+    static List<String> redact(String sql, SortedMap<Integer, Object> parameters) {
+        List<Integer> placeholders = new ArrayList<>();
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                placeholders.add(i);
+            }
+        }
+
+        boolean[] sensitive = new boolean[placeholders.size() + 1];
+        boolean mentionsSensitive = sql.toLowerCase().contains(SENSITIVE_COLUMN);
+        boolean located = false;
+        if (mentionsSensitive) {
+            for (int p = 0; p < placeholders.size(); p++) {
+                Matcher matcher = COMPARED_COLUMN.matcher(sql.substring(0, placeholders.get(p)));
+                if (matcher.find() && matcher.group(1).equalsIgnoreCase(SENSITIVE_COLUMN)) {
+                    sensitive[p + 1] = true;
+                    located = true;
+                }
+            }
+            Matcher insert = INSERT_COLUMNS.matcher(sql);
+            if (insert.find()) {
+                String[] columns = insert.group(1).split(",");
+                String[] values = insert.group(2).split(",");
+                int ordinal = 0;
+                for (int i = 0; i < values.length && i < columns.length; i++) {
+                    if (values[i].trim().equals("?")) {
+                        ordinal++;
+                        if (columns[i].trim().replace("`", "").equalsIgnoreCase(SENSITIVE_COLUMN) && ordinal < sensitive.length) {
+                            sensitive[ordinal] = true;
+                            located = true;
+                        }
+                    }
+                }
+            }
+        }
+
+        List<String> redacted = new ArrayList<>();
+        for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+            int index = parameter.getKey();
+            boolean hide = mentionsSensitive && (!located || (index < sensitive.length && sensitive[index]));
+            redacted.add(index + ":" + (hide ? REDACTED : literal(parameter.getValue())));
+        }
+        return redacted;
+    }
+
+    private static String literal(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        String text = value.toString();
+        if (text.length() > MAX_VALUE_LENGTH) {
+            text = text.substring(0, MAX_VALUE_LENGTH) + "...";
+        }
+        return "'" + text.replace("'", "''") + "'";
+    }
+
+    private void write(String entry, String sql, Object[] values) {
+        StringBuilder text = new StringBuilder(entry);
+        if (shouldExplain(sql)) {
+            text.append(explain(sql, values));
+        }
+        text.append('\n');
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            if (Files.exists(file) && Files.size(file) >= maxBytes) {
+                rotate();
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(text.toString());
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing slow query log: " + e.getMessage());
+        }
+    }
+
+    private boolean shouldExplain(String sql) {
+        if (explainIntervalMillis < 0 || !EXPLAINABLE.matcher(sql).matches()) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        Long previous = lastExplained.get(sql);
+        if (previous != null && now - previous < explainIntervalMillis) {
+            return false;
+        }
+        lastExplained.put(sql, now);
+        return true;
+    }
+
+    private String explain(String sql, Object[] values) {
+        StringBuilder plan = new StringBuilder("# EXPLAIN:\n");
+        try (Connection connection = DatabaseHelper.getPool().borrow();
+             PreparedStatement preparedStatement = connection.prepareStatement("EXPLAIN " + sql)) {
+
+            for (int i = 0; i < values.length; i++) {
+                preparedStatement.setObject(i + 1, values[i]);
+            }
+            ResultSet resultSet = preparedStatement.executeQuery();
+            ResultSetMetaData metaData = resultSet.getMetaData();
+
+            List<String> header = new ArrayList<>();
+            for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                header.add(metaData.getColumnLabel(column));
+            }
+            plan.append("#   ").append(String.join(" | ", header)).append('\n');
+            while (resultSet.next()) {
+                String[] row = new String[header.size()];
+                for (int column = 1; column <= row.length; column++) {
+                    row[column - 1] = String.valueOf(resultSet.getString(column));
+                }
+                plan.append("#   ").append(String.join(" | ", Arrays.asList(row))).append('\n');
+            }
+        } catch (Exception e) {
+            plan.append("#   unavailable: ").append(e.getMessage()).append('\n');
+        }
+        return plan.toString();
+    }
+
+    private void rotate() throws IOException {
+        Files.deleteIfExists(rotated(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    public long getSlowQueryCount() {
+        return slowQueries.get();
+    }
+
+    public long getDroppedEntryCount() {
+        return droppedEntries.get();
+    }
+
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package src.managers;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public class TagDictionary {
+    public static final String GENRE = "genre";
+    public static final String MOOD = "mood";
+
+    private static final TagDictionary instance = new TagDictionary();
+
+    private final DatabaseHelper dbHelper = new DatabaseHelper();
+    private volatile Snapshot snapshot;
+
+    private TagDictionary() {}
+
+    public static TagDictionary getInstance() {
+        return instance;
+    }
+
+    public synchronized void reload() {
+        String query = "SELECT tag_name, tag_type FROM tags ORDER BY tag_name";
+        Snapshot previous = snapshot != null ? snapshot : Snapshot.EMPTY;
+        List<String> names = new ArrayList<>(Arrays.asList(previous.names));
+        List<String> types = new ArrayList<>(Arrays.asList(previous.types));
+        Set<String> present = new HashSet<>();
+
+        try (Connection connection = dbHelper.connect();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+
+            ResultSet resultSet = preparedStatement.executeQuery();
+            while (resultSet.next()) {
+                String name = resultSet.getString("tag_name").intern();
+                String type = resultSet.getString("tag_type").intern();
+                Integer existingId = previous.idsByName.get(key(name));
+                if (existingId == null) {
+                    names.add(name);
+                    types.add(type);
+                } else {
+                    types.set(existingId, type);
+                }
+                present.add(name);
+            }
+            snapshot = new Snapshot(names.toArray(new String[0]), types.toArray(new String[0]), present);
+        } catch (Exception e) {
+            System.err.println("Error loading tags: " + e.getMessage());
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot loaded = snapshot;
+        if (loaded == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                loaded = snapshot != null ? snapshot : Snapshot.EMPTY;
+            }
+        }
+        return loaded;
+    }
+
+    public int idOf(String tagName) {
+        Integer id = current().idsByName.get(key(tagName));
+        return id == null ? -1 : id;
+    }
+
+    private static String key(String tagName) {
+        return tagName.toLowerCase(Locale.ROOT);
+    }
+
+    public String nameOf(int tagId) {
+        return current().names[tagId];
+    }
+
+    public String typeOf(int tagId) {
+        return current().types[tagId];
+    }
+
+    public List<String> namesOfType(String type) {
+        return current().namesByType.getOrDefault(type, List.of());
+    }
+
+    public int[] encode(Collection<String> tagNames) {
+        int[] tagIds = new int[tagNames.size()];
+        int size = 0;
+        for (String tagName : tagNames) {
+            int tagId = idOf(tagName);
+            if (tagId >= 0) {
+                tagIds[size++] = tagId;
+            }
+        }
+        int[] encoded = Arrays.copyOf(tagIds, size);
+        Arrays.sort(encoded);
+        return encoded;
+    }
+
+    public List<String> decode(int[] tagIds, String type) {
+        Snapshot loaded = current();
+        List<String> tagNames = new ArrayList<>();
+        for (int tagId : tagIds) {
+            if (tagId < loaded.names.length && loaded.types[tagId].equals(type)) {
+                tagNames.add(loaded.names[tagId]);
+            }
+        }
+        tagNames.sort(String.CASE_INSENSITIVE_ORDER);
+        return tagNames;
+    }
+
+    private static class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(new String[0], new String[0], Set.of());
+
+        private final String[] names;
+        private final String[] types;
+        private final Map<String, Integer> idsByName = new HashMap<>();
+        private final Map<String, List<String>> namesByType = new HashMap<>();
+
+        private Snapshot(String[] names, String[] types, Set<String> present) {
+            this.names = names;
+            this.types = types;
+            Map<String, List<String>> grouped = new HashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                idsByName.put(key(names[i]), i);
+                if (present.contains(names[i])) {
+                    grouped.computeIfAbsent(types[i], type -> new ArrayList<>()).add(names[i]);
+                }
+            }
+            grouped.forEach((type, typeNames) -> {
+                typeNames.sort(String.CASE_INSENSITIVE_ORDER);
+                namesByType.put(type, List.copyOf(typeNames));
+            });
+        }
+    }
+}
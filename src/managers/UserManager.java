@@ -1,31 +1,67 @@
 package src.managers;
 import src.models.User;
+import src.models.UserContext;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class UserManager {
 
-    private static UserManager instance;
     private final DatabaseHelper dbHelper = new DatabaseHelper();
-    private User loggedInUser;
+    private final SessionRegistry sessions = SessionRegistry.getInstance();
+    private final ThreadLocal<String> sessionToken = new ThreadLocal<>();
 
     private UserManager() {}
 
+    private static class Holder {
+        private static final UserManager INSTANCE = new UserManager();
+    }
+
     public static UserManager getInstance() {
-        if (instance == null) {
-            instance = new UserManager();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     public User getLoggedInUser() {
-        return loggedInUser;
+        UserContext context = getUserContext();
+        return context != null ? context.getUser() : null;
+    }
+
+    public UserContext getUserContext() {
+        return sessions.get(sessionToken.get());
+    }
+
+    public UserContext getUserContext(int userId) {
+        return sessions.contextOf(userId);
+    }
+
+    public void logOut() {
+        String token = sessionToken.get();
+        if (token != null) {
+            sessions.close(token);
+            sessionToken.remove();
+        }
     }
 
     public User verifyCredentials(String username, String password) {
+        String token = openSession(username, password, false);
+        if (token == null) {
+            return null;
+        }
+        sessionToken.set(token);
+        return sessions.get(token).getUser();
+    }
+
+    public String openSession(String username, String password) {
+        return openSession(username, password, true);
+    }
+
+    private String openSession(String username, String password, boolean expiring) {
         String query = "SELECT * FROM users WHERE username = ? AND password = ?";
-        try (Connection connection = dbHelper.connect();
+        try (Connection connection = dbHelper.connectAfterOwnWrites();
              PreparedStatement preparedStatement = connection.prepareStatement(query)) {
 
             preparedStatement.setString(1, username);
@@ -34,14 +70,15 @@ public class UserManager {
             ResultSet resultSet = preparedStatement.executeQuery();
 
             if (resultSet.next()) {
-                loggedInUser = new User(
+                User user = new User(
                         resultSet.getInt("user_id"),
                         resultSet.getString("username"),
                         resultSet.getString("password"),
                         resultSet.getTimestamp("date_joined"),
                         resultSet.getBoolean("is_admin")
                 );
-                return loggedInUser;
+                String token = sessions.openExisting(user.getUserId(), expiring);
+                return token != null ? token : sessions.open(loadUserContext(connection, user), expiring);
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -49,6 +86,45 @@ public class UserManager {
         return null;
     }
 
+    private UserContext loadUserContext(Connection connection, User user) throws SQLException {
+        String shelfQuery = "SELECT shelf_id, shelf_name FROM shelves WHERE user_id = ? ORDER BY shelf_id";
+        String placementQuery = """
+            SELECT sb.book_id, s.shelf_name
+            FROM shelf_books sb
+            JOIN shelves s ON sb.shelf_id = s.shelf_id
+            WHERE sb.user_id = ?
+        """;
+        String ratingQuery = "SELECT book_id, rating FROM reviews WHERE user_id = ?";
+
+        Map<String, Integer> shelfIds = new LinkedHashMap<>();
+        Map<Integer, String> shelfByBook = new HashMap<>();
+        Map<Integer, Integer> ratingByBook = new HashMap<>();
+
+        try (PreparedStatement shelfStmt = connection.prepareStatement(shelfQuery);
+             PreparedStatement placementStmt = connection.prepareStatement(placementQuery);
+             PreparedStatement ratingStmt = connection.prepareStatement(ratingQuery)) {
+
+            shelfStmt.setInt(1, user.getUserId());
+            ResultSet shelves = shelfStmt.executeQuery();
+            while (shelves.next()) {
+                shelfIds.put(shelves.getString("shelf_name"), shelves.getInt("shelf_id"));
+            }
+
+            placementStmt.setInt(1, user.getUserId());
+            ResultSet placements = placementStmt.executeQuery();
+            while (placements.next()) {
+                shelfByBook.put(placements.getInt("book_id"), placements.getString("shelf_name"));
+            }
+
+            ratingStmt.setInt(1, user.getUserId());
+            ResultSet ratings = ratingStmt.executeQuery();
+            while (ratings.next()) {
+                ratingByBook.put(ratings.getInt("book_id"), ratings.getInt("rating"));
+            }
+        }
+
+        return new UserContext(user, shelfIds, shelfByBook, ratingByBook);
+    }
 
     public boolean validUsername(String username) {
         String query = "SELECT username FROM users WHERE username = ?";
@@ -0,0 +1,290 @@
+package src.managers;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+public class WriteBehindQueue {
+    private static final long POLL_INTERVAL_MILLIS = 200;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 30_000;
+
+    private static final WriteBehindQueue instance = new WriteBehindQueue(
+            Integer.getInteger("plotpoint.writes.queueSize", 1_000),
+            Integer.getInteger("plotpoint.writes.batchSize", 100)
+    );
+
+    private final BlockingQueue<PendingWrite> queue;
+    private final int batchSize;
+    private final ThreadLocal<Long> lastTicket = ThreadLocal.withInitial(() -> 0L);
+    private final ThreadLocal<List<PendingWrite>> ownWrites = ThreadLocal.withInitial(ArrayList::new);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition processed = lock.newCondition();
+    private long enqueuedThrough;
+    private volatile long processedThrough;
+    private volatile boolean running = true;
+    private volatile Thread worker;
+
+    private final AtomicLong writesApplied = new AtomicLong();
+    private final AtomicLong writesFailed = new AtomicLong();
+    private final AtomicLong batchesCommitted = new AtomicLong();
+
+    public WriteBehindQueue(int capacity, int batchSize) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+    }
+
+    public static WriteBehindQueue getInstance() {
+        return instance;
+    }
+
+    public void enqueue(String sql, Object[] parameters, Consumer<Boolean> onComplete) {
+        startWorker();
+        List<PendingWrite> own = ownWrites.get();
+        own.removeIf(write -> write.done && !write.failed);
+        synchronized (queue) {
+            if (!running) {
+                throw new IllegalStateException("Write queue is shut down");
+            }
+            long ticket = ++enqueuedThrough;
+            PendingWrite write = new PendingWrite(ticket, sql, parameters, onComplete);
+            try {
+                queue.put(write);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing a write", e);
+            }
+            lastTicket.set(ticket);
+            own.add(write);
+        }
+    }
+
+    public boolean awaitOwnWrites() {
+        if (Thread.currentThread() == worker) {
+            return true;
+        }
+        long ticket = lastTicket.get();
+        if (processedThrough < ticket) {
+            lock.lock();
+            try {
+                while (processedThrough < ticket && worker.isAlive()) {
+                    processed.await(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return takeOwnFailures() == 0;
+    }
+
+    public int takeOwnFailures() {
+        List<PendingWrite> own = ownWrites.get();
+        int failures = 0;
+        Iterator<PendingWrite> iterator = own.iterator();
+        while (iterator.hasNext()) {
+            PendingWrite write = iterator.next();
+            if (write.done) {
+                if (write.failed) {
+                    failures++;
+                }
+                iterator.remove();
+            }
+        }
+        return failures;
+    }
+
+    private synchronized void startWorker() {
+        if (worker == null) {
+            worker = new Thread(this::drain, "plotpoint-write-behind");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    private void drain() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (Exception e) {
+                System.err.println("Error in write-behind worker: " + e.getMessage());
+            } finally {
+                if (!batch.isEmpty()) {
+                    for (PendingWrite write : batch) {
+                        if (!write.done) {
+                            write.complete(false);
+                        }
+                    }
+                    markProcessed(batch.get(batch.size() - 1).ticket);
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        boolean[] succeeded = new boolean[batch.size()];
+        try (Connection connection = DatabaseHelper.getPool().borrow()) {
+            connection.setAutoCommit(false);
+            try {
+                int from = 0;
+                while (from < batch.size()) {
+                    int to = from + 1;
+                    while (to < batch.size() && batch.get(to).sql.equals(batch.get(from).sql)) {
+                        to++;
+                    }
+                    try (PreparedStatement preparedStatement = connection.prepareStatement(batch.get(from).sql)) {
+                        for (PendingWrite write : batch.subList(from, to)) {
+                            write.bind(preparedStatement);
+                            preparedStatement.addBatch();
+                        }
+                        preparedStatement.executeBatch();
+                    }
+                    from = to;
+                }
+                connection.commit();
+                batchesCommitted.incrementAndGet();
+                writesApplied.addAndGet(batch.size());
+                Arrays.fill(succeeded, true);
+            } catch (SQLException e) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+                writeIndividually(connection, batch, succeeded);
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            int unapplied = 0;
+            for (boolean applied : succeeded) {
+                unapplied += applied ? 0 : 1;
+            }
+            writesFailed.addAndGet(unapplied);
+            System.err.println("Error applying queued writes: " + e.getMessage());
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).complete(succeeded[i]);
+        }
+    }
+
+    private void writeIndividually(Connection connection, List<PendingWrite> batch, boolean[] succeeded) {
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite write = batch.get(i);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(write.sql)) {
+                write.bind(preparedStatement);
+                preparedStatement.executeUpdate();
+                writesApplied.incrementAndGet();
+                succeeded[i] = true;
+            } catch (SQLException e) {
+                writesFailed.incrementAndGet();
+                System.err.println("Error applying queued write: " + e.getMessage());
+            }
+        }
+    }
+
+    private void markProcessed(long ticket) {
+        lock.lock();
+        try {
+            processedThrough = ticket;
+            processed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        synchronized (queue) {
+            running = false;
+        }
+        Thread current;
+        synchronized (this) {
+            current = worker;
+        }
+        if (current == null) {
+            return;
+        }
+        try {
+            current.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            System.err.println("Write queue closed with " + queue.size() + " unwritten changes.");
+        }
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    public long getWritesApplied() {
+        return writesApplied.get();
+    }
+
+    public long getWritesFailed() {
+        return writesFailed.get();
+    }
+
+    public long getBatchesCommitted() {
+        return batchesCommitted.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WriteBehindQueue[pending=%d, applied=%d, failed=%d, batches=%d]",
+                queue.size(), writesApplied.get(), writesFailed.get(), batchesCommitted.get());
+    }
+
+    private static class PendingWrite {
+        private final long ticket;
+        private final String sql;
+        private final Object[] parameters;
+        private final Consumer<Boolean> onComplete;
+        private volatile boolean done;
+        private volatile boolean failed;
+
+        private PendingWrite(long ticket, String sql, Object[] parameters, Consumer<Boolean> onComplete) {
+            this.ticket = ticket;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.onComplete = onComplete;
+        }
+
+        private void complete(boolean success) {
+            failed = !success;
+            if (onComplete != null) {
+                try {
+                    onComplete.accept(success);
+                } catch (Exception e) {
+                    System.err.println("Error completing queued write: " + e.getMessage());
+                }
+            }
+            done = true;
+        }
+
+        private void bind(PreparedStatement preparedStatement) throws SQLException {
+            for (int i = 0; i < parameters.length; i++) {
+                preparedStatement.setObject(i + 1, parameters[i]);
+            }
+        }
+    }
+}
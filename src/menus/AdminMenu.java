@@ -1,7 +1,11 @@
 package src.menus;
 
 import src.managers.BookManager;
+import src.managers.CatalogExporter;
+import src.managers.CatalogImporter;
+import src.managers.QueryPlanCheck;
 import src.models.Book;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Scanner;
 import java.util.ArrayList;
@@ -11,6 +15,8 @@ import java.time.format.DateTimeParseException;
 public class AdminMenu extends Menu {
     private final BookManager bookManager = new BookManager();
     private final BookMenu bookMenu = new BookMenu(input);
+    private final CatalogImporter catalogImporter = new CatalogImporter();
+    private final CatalogExporter catalogExporter = new CatalogExporter();
 
     public AdminMenu(Scanner input) {
         super(input);
@@ -26,17 +32,23 @@ public class AdminMenu extends Menu {
             System.out.println("│ [2] Delete a book                            │");
             System.out.println("│ [3] Edit a book                              │");
             System.out.println("│ [4] Search for a book                        │");
+            System.out.println("│ [5] Import a catalog file                    │");
+            System.out.println("│ [6] Export catalog and user data             │");
+            System.out.println("│ [7] Check hot query plans                    │");
             System.out.println("├──────────────────────────────────────────────┤");
             System.out.println("│ [0] Exit                                     │");
             System.out.println("└──────────────────────────────────────────────┘");
 
-            int choice = getUserChoice("\nEnter your choice: ", 4);
+            int choice = getUserChoice("\nEnter your choice: ", 7);
 
             switch (choice) {
                 case 1 -> handleAddBook();
                 case 2 -> handleDeleteBook();
                 case 3 -> handleEditBook();
                 case 4 -> handleSearchBook();
+                case 5 -> handleImportCatalog();
+                case 6 -> handleExportData();
+                case 7 -> handleCheckQueryPlans();
                 case 0 -> exit = true;
                 default -> System.out.println("Invalid choice.");
             }
@@ -64,6 +76,50 @@ public class AdminMenu extends Menu {
         bookManager.insertBookIntoDatabase(book, genres, moods);
     }
 
+    private void handleImportCatalog() {
+        System.out.println("\n┌──────────────────────────────────────────────┐");
+        System.out.println("│              Import a Catalog File           │");
+        System.out.println("└──────────────────────────────────────────────┘");
+        input.nextLine();
+        System.out.print("Enter the path of a .csv or .jsonl file: ");
+        String path = input.nextLine().trim();
+
+        try {
+            CatalogImporter.ImportResult result = catalogImporter.importFile(Path.of(path));
+            System.out.printf("Import finished: %,d books imported, %,d records skipped.%n",
+                    result.getBooksImported(), result.getRejected());
+        } catch (Exception e) {
+            System.out.println("Error importing catalog: " + e.getMessage());
+        }
+    }
+
+    private void handleExportData() {
+        System.out.println("\n┌──────────────────────────────────────────────┐");
+        System.out.println("│         Export Catalog and User Data         │");
+        System.out.println("└──────────────────────────────────────────────┘");
+        input.nextLine();
+        System.out.print("Enter the directory to export to: ");
+        String directory = input.nextLine().trim();
+        System.out.print("Format (jsonl or csv): ");
+        String format = input.nextLine().trim().toLowerCase();
+
+        try {
+            long rows = catalogExporter.exportAll(Path.of(directory), format.isEmpty() ? CatalogExporter.JSONL : format);
+            System.out.printf("Export finished: %,d rows written.%n", rows);
+        } catch (Exception e) {
+            System.out.println("Error exporting data: " + e.getMessage());
+        }
+    }
+
+    private void handleCheckQueryPlans() {
+        System.out.println("\n┌──────────────────────────────────────────────┐");
+        System.out.println("│             Check Hot Query Plans            │");
+        System.out.println("└──────────────────────────────────────────────┘");
+        if (!new QueryPlanCheck().run()) {
+            System.out.println("\nSome hot queries fall back to a full scan or an unexpected sort; see the list above.");
+        }
+    }
+
     private void handleDeleteBook() {
         System.out.println("\n┌──────────────────────────────────────────────┐");
         System.out.println("│                 Delete a Book                │");
@@ -89,37 +145,7 @@ public class AdminMenu extends Menu {
         System.out.print("Enter book title: ");
         String title = input.nextLine();
 
-        List<Book> books = bookManager.searchByTitle(title);
-
-        displayTitle("Search Results");
-        if (books == null || books.isEmpty()) {
-            System.out.println("│                No books found                │");
-            System.out.println("└──────────────────────────────────────────────┘\n");
-            System.out.print("Press enter to return.");
-            input.nextLine();
-            return  null;
-        }
-
-        for (int i = 0; i < books.size(); i++) {
-            String title1 = books.get(i).getTitle();
-            String author = books.get(i).getAuthor();
-            String rating = books.get(i).getOverallRating();
-
-            String bookInfo = "[" + (i + 1) + "] " + title1 + " by " + author;
-            if (bookInfo.length() > 38) {
-                bookInfo = bookInfo.substring(0, 35) + "...";
-            }
-
-            System.out.printf("│ %-44s │\n", bookInfo);
-            System.out.printf("│    Average rating: %-25s │\n", rating);
-            System.out.println("├──────────────────────────────────────────────┤");
-        }
-        System.out.println("│ [0] Exit                                     │");
-        System.out.println("└──────────────────────────────────────────────┘");
-
-        int choice = getUserChoice("\nSelect a book: ", books.size());
-
-        return choice == 0 ? null : books.get(choice - 1);
+        return selectBookFromPages(cursor -> bookManager.searchByTitle(title, cursor, PAGE_SIZE), "\nSelect a book: ");
     }
 
     private void viewBookDetails(Book book){
@@ -256,7 +282,7 @@ public class AdminMenu extends Menu {
         System.out.print("Enter synopsis: ");
         String synopsis = input.nextLine();
 
-        return new Book(0, title, author, publicationDate, pageCount, 0, synopsis);
+        return new Book(0, title, author, publicationDate, pageCount, 0, synopsis, 0);
     }
 
     private List<String> selectTags(String type) {
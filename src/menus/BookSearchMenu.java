@@ -1,10 +1,16 @@
 package src.menus;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.Function;
 import src.managers.*;
 import src.models.Book;
+import src.models.BookCursor;
+import src.models.BookPage;
 
 public class BookSearchMenu extends Menu {
+    private static final int QUICK_SEARCH_LIMIT = 10;
+
     private final BookManager bookManager = new BookManager();
     private final BookMenu bookMenu = new BookMenu(input);
 
@@ -20,11 +26,13 @@ public class BookSearchMenu extends Menu {
             System.out.println("│ Search by:                                   │");
             System.out.println("│ [1] Title                                    │");
             System.out.println("│ [2] Author                                   │");
+            System.out.println("│ [3] Keywords (title, author, synopsis)       │");
+            System.out.println("│ [4] Quick search (partial words, typos ok)   │");
             System.out.println("├──────────────────────────────────────────────┤");
             System.out.println("│ [0] Exit                                     │");
             System.out.println("└──────────────────────────────────────────────┘");
 
-            int choice = getUserChoice("\nEnter your choice: ", 2);
+            int choice = getUserChoice("\nEnter your choice: ", 4);
             input.nextLine();
             List<Book> books = null;
 
@@ -32,12 +40,22 @@ public class BookSearchMenu extends Menu {
                 case 1 -> {
                     System.out.print("Enter book title: ");
                     String title = input.nextLine();
-                    books = bookManager.searchByTitle(title);
+                    displayBookPages(cursor -> bookManager.searchByTitle(title, cursor, PAGE_SIZE));
                 }
                 case 2 -> {
                     System.out.print("Enter author name: ");
                     String author = input.nextLine();
-                    books = bookManager.searchByAuthor(author);
+                    displayBookPages(cursor -> bookManager.searchByAuthor(author, cursor, PAGE_SIZE));
+                }
+                case 3 -> {
+                    System.out.print("Enter keywords: ");
+                    String keywords = input.nextLine();
+                    displayBookPages(cursor -> bookManager.searchByKeywords(keywords, cursor, PAGE_SIZE));
+                }
+                case 4 -> {
+                    System.out.print("Start typing a title or author: ");
+                    String text = input.nextLine();
+                    books = bookManager.quickSearch(text, QUICK_SEARCH_LIMIT);
                 }
                 case 0 -> exit = true;
                 default -> System.out.println("Invalid choice. Please select an option from the menu.");
@@ -50,35 +68,14 @@ public class BookSearchMenu extends Menu {
     }
 
     public void displayBookList(List<Book> books) {
-        displayTitle("Search Results");
-        if (books == null || books.isEmpty()) {
-            System.out.println("│                No books found                │");
-            System.out.println("└──────────────────────────────────────────────┘\n");
-            System.out.print("Press enter to return.");
-            input.nextLine();
-            return;
-        }
-
-        for (int i = 0; i < books.size(); i++) {
-            String title = books.get(i).getTitle();
-            String author = books.get(i).getAuthor();
-            String rating = books.get(i).getOverallRating();
-
-            String bookInfo = "[" + (i + 1) + "] " + title + " by " + author;
-            if (bookInfo.length() > 38) {
-                bookInfo = bookInfo.substring(0, 35) + "...";
-            }
-
-            System.out.printf("│ %-44s │\n", bookInfo);
-            System.out.printf("│    Average rating: %-25s │\n", rating);
-            System.out.println("├──────────────────────────────────────────────┤");
-        }
-        System.out.println("│ [0] Exit                                     │");
-        System.out.println("└──────────────────────────────────────────────┘");
+        List<Book> results = books == null ? new ArrayList<>() : books;
+        displayBookPages(cursor -> new BookPage(results, null));
+    }
 
-        int bookChoice = getUserChoice("\nSelect a book to view details: ", books.size());
-        if (bookChoice > 0 && bookChoice <= books.size()) {
-            bookMenu.displayMenu(books.get(bookChoice - 1));
+    public void displayBookPages(Function<BookCursor, BookPage> pageLoader) {
+        Book selectedBook = selectBookFromPages(pageLoader, "\nSelect a book to view details: ");
+        if (selectedBook != null) {
+            bookMenu.displayMenu(selectedBook);
         }
     }
 
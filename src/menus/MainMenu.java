@@ -55,6 +55,8 @@ public class MainMenu extends Menu {
                 } else {
                     userMenu.displayMenu();
                 }
+                userManager.logOut();
+                loggedInUser = null;
             } else {
                 System.out.println("\nInvalid username or password. Please try again.");
             }
@@ -1,8 +1,16 @@
 package src.menus;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.function.Function;
+import src.managers.WriteBehindQueue;
 import src.models.Book;
+import src.models.BookCursor;
+import src.models.BookPage;
 
 public abstract class Menu {
+    protected static final int PAGE_SIZE = 10;
+
     protected Scanner input;
 
     public Menu(Scanner input) {
@@ -16,6 +24,11 @@ public abstract class Menu {
     }
 
     protected int getUserChoice(String prompt, int maxOption) {
+        int failedWrites = WriteBehindQueue.getInstance().takeOwnFailures();
+        if (failedWrites > 0) {
+            System.out.println("\nWarning: " + failedWrites + " of your recent changes could not be saved and " +
+                    (failedWrites == 1 ? "was" : "were") + " undone.");
+        }
         System.out.print(prompt);
         while (!input.hasNextInt()) {
             System.out.print("Invalid input. " + prompt);
@@ -29,6 +42,66 @@ public abstract class Menu {
         return choice;
     }
 
+    protected Book selectBookFromPages(Function<BookCursor, BookPage> pageLoader, String prompt) {
+        List<BookCursor> previousCursors = new ArrayList<>();
+        BookCursor cursor = null;
+
+        while (true) {
+            BookPage page = pageLoader.apply(cursor);
+            List<Book> books = page.getBooks();
+
+            displayTitle("Search Results");
+            if (books.isEmpty() && previousCursors.isEmpty()) {
+                System.out.println("│                No books found                │");
+                System.out.println("└──────────────────────────────────────────────┘\n");
+                System.out.print("Press enter to return.");
+                input.nextLine();
+                return null;
+            }
+
+            for (int i = 0; i < books.size(); i++) {
+                String title = books.get(i).getTitle();
+                String author = books.get(i).getAuthor();
+                String rating = books.get(i).getOverallRating();
+
+                String bookInfo = "[" + (i + 1) + "] " + title + " by " + author;
+                if (bookInfo.length() > 38) {
+                    bookInfo = bookInfo.substring(0, 35) + "...";
+                }
+
+                System.out.printf("│ %-44s │\n", bookInfo);
+                System.out.printf("│    Average rating: %-25s │\n", rating);
+                System.out.println("├──────────────────────────────────────────────┤");
+            }
+
+            int nextOption = page.hasNextPage() ? books.size() + 1 : -1;
+            int previousOption = previousCursors.isEmpty() ? -1 : books.size() + (page.hasNextPage() ? 2 : 1);
+            if (nextOption > 0) {
+                System.out.printf("│ %-44s │\n", "[" + nextOption + "] Next page");
+            }
+            if (previousOption > 0) {
+                System.out.printf("│ %-44s │\n", "[" + previousOption + "] Previous page");
+            }
+            if (nextOption > 0 || previousOption > 0) {
+                System.out.println("├──────────────────────────────────────────────┤");
+            }
+            System.out.println("│ [0] Exit                                     │");
+            System.out.println("└──────────────────────────────────────────────┘");
+
+            int choice = getUserChoice(prompt, Math.max(books.size(), Math.max(nextOption, previousOption)));
+            if (choice == 0) {
+                return null;
+            } else if (choice == nextOption) {
+                previousCursors.add(cursor);
+                cursor = page.getNextCursor();
+            } else if (choice == previousOption) {
+                cursor = previousCursors.remove(previousCursors.size() - 1);
+            } else {
+                return books.get(choice - 1);
+            }
+        }
+    }
+
     public String centerText(String text, int width) {
         int padding = (width - text.length()) / 2;
         return " ".repeat(Math.max(0, padding)) + text + " ".repeat(Math.max(0, width - text.length() - padding));
@@ -2,6 +2,7 @@ package src.menus;
 import src.managers.*;
 import src.models.Book;
 import src.models.User;
+import src.models.UserContext;
 import java.util.List;
 import java.util.Scanner;
 
@@ -23,14 +24,16 @@ public class ProfileMenu extends Menu {
             return;
         }
 
+        UserContext context = userManager.getUserContext();
+
         boolean exit = false;
         while (!exit) {
             displayTitle("Welcome to your PlotPoint Profile!");
             System.out.printf("│ %-44s │\n", "Name: " + user.getUsername());
             System.out.printf("│ %-44s │\n", "Joined in: " + user.getDateJoined());
-            System.out.printf("│ %-44s │\n", "Number of ratings and reviews: " + reviewManager.getTotalReviews(user.getUserId()));
-            System.out.printf("│ %-44s │\n", "Average rating: " + String.format("%.2f", reviewManager.getAverageRating(user.getUserId())));
-            System.out.printf("│ %-44s │\n", "Number of books read: "+ shelfManager.getReadShelfBookCount(user.getUserId()));
+            System.out.printf("│ %-44s │\n", "Number of ratings and reviews: " + context.getReviewCount());
+            System.out.printf("│ %-44s │\n", "Average rating: " + String.format("%.2f", context.getAverageRating()));
+            System.out.printf("│ %-44s │\n", "Number of books read: "+ context.getReadCount());
             System.out.println("├──────────────────────────────────────────────┤");
             System.out.println("│ [1] View your shelves                        │");
             System.out.println("│ [2] View your stats                          │");
@@ -43,7 +46,7 @@ public class ProfileMenu extends Menu {
 
             switch (choice) {
                 case 1 -> viewShelves();
-                case 2 -> viewStats();
+                case 2 -> viewStats(user);
                 case 3 -> displayReviewedBooks(user.getUserId());
                 case 0 -> exit = true;
                 default -> System.out.println("Invalid choice. Please select an option from the menu.");
@@ -223,7 +226,7 @@ public class ProfileMenu extends Menu {
         }
     }
 
-    public void viewStats() {
+    public void viewStats(User user) {
         boolean exit = false;
 
         while (!exit) {
@@ -242,19 +245,19 @@ public class ProfileMenu extends Menu {
             switch (choice) {
                 case 1 ->{
                     displayTitle("Most Read Genres");
-                    shelfManager.showMostReadGenres(input);
+                    shelfManager.showMostReadGenres(user, input);
                 }
                 case 2 -> {
                     displayTitle("Books read per month");
-                    shelfManager.showBooksReadPerMonth(input);
+                    shelfManager.showBooksReadPerMonth(user, input);
                 }
                 case 3 -> {
                     displayTitle("Pages read per month");
-                    shelfManager.showPagesReadPerMonth(input);
+                    shelfManager.showPagesReadPerMonth(user, input);
                 }
                 case 4 -> {
                     displayTitle("Average rating per month");
-                    shelfManager.showAverageRatingPerMonth(input);
+                    shelfManager.showAverageRatingPerMonth(user, input);
                 }
                 case 0 -> exit = true;
                 default -> System.out.println("Invalid choice. Please select an option from the menu.");
@@ -1,11 +1,15 @@
 package src.menus;
 import java.util.List;
 import java.util.Scanner;
-import src.models.Book;
 import src.managers.BookManager;
+import src.managers.RecommendationEngine;
+import src.managers.UserManager;
+import src.models.Book;
 
 public class RecommendationsMenu extends Menu {
     private final BookManager bookManager = new BookManager();
+    private final RecommendationEngine recommendations = RecommendationEngine.getInstance();
+    private final UserManager userManager = UserManager.getInstance();
 
     public RecommendationsMenu(Scanner input) {
         super(input);
@@ -19,21 +23,37 @@ public class RecommendationsMenu extends Menu {
             System.out.println("│ Choose recommendation type:                  │");
             System.out.println("│ [1] Genre-based                              │");
             System.out.println("│ [2] Mood-based                               │");
+            System.out.println("│ [3] Personalized for you                     │");
             System.out.println("├──────────────────────────────────────────────┤");
             System.out.println("│ [0] Exit                                     │");
             System.out.println("└──────────────────────────────────────────────┘");
 
-            int choice = getUserChoice("\nEnter your choice: ", 2);
+            int choice = getUserChoice("\nEnter your choice: ", 3);
 
             switch (choice) {
                 case 1 -> recommendByType("genre");
                 case 2 -> recommendByType("mood");
+                case 3 -> recommendPersonalized();
                 case 0 -> exit = true;
                 default -> System.out.println("Invalid choice. Please select an option from the menu.");
             }
         }
     }
 
+    private void recommendPersonalized() {
+        if (!recommendations.isReady()) {
+            System.out.println("Personalized recommendations are still being prepared. Please try again shortly.");
+            return;
+        }
+        List<Integer> bookIds = recommendations.recommend(userManager.getLoggedInUser().getUserId(), PAGE_SIZE);
+        if (bookIds.isEmpty()) {
+            System.out.println("Rate a few more books to get personalized recommendations.");
+            return;
+        }
+        List<Book> books = bookManager.getBooksByIds(bookIds);
+        new BookSearchMenu(input).displayBookList(books);
+    }
+
     private void recommendByType(String type) {
         List<String> tags = bookManager.getTagsByType(type);
         if (tags.isEmpty()) {
@@ -56,8 +76,7 @@ public class RecommendationsMenu extends Menu {
 
         if (choice > 0 && choice <= tags.size()) {
             String selectedTag = tags.get(choice - 1);
-            List<Book> recommendations = bookManager.getRecommendedBooksByTag(selectedTag);
-            new BookSearchMenu(input).displayBookList(recommendations);
+            new BookSearchMenu(input).displayBookPages(cursor -> bookManager.getRecommendedBooksByTag(selectedTag, cursor, PAGE_SIZE));
         }
     }
 }
@@ -1,9 +1,10 @@
 package src.models;
 import java.util.List;
 import src.managers.BookManager;
+import src.managers.TagDictionary;
 
 public class Book {
-    private final BookManager bookManager = new BookManager();
+    private static final BookManager bookManager = new BookManager();
 
     private int bookId;
     private String title;
@@ -11,12 +12,12 @@ public class Book {
     private String publishedDate;
     private int pageCount;
     private double overallRating;
-    private List<String> genres;
     private String synopsis;
-    private  List<String> moods;
+    private int[] tagIds;
     private int reviewCount;
+    private volatile boolean detailsLoaded;
 
-    public Book(int bookId, String title, String author, String publishedDate, int pageCount, double overallRating, String synopsis) {
+    public Book(int bookId, String title, String author, String publishedDate, int pageCount, double overallRating, String synopsis, int reviewCount) {
         this.bookId = bookId;
         this.title = title;
         this.author = author;
@@ -24,9 +25,22 @@ public class Book {
         this.pageCount = pageCount;
         this.overallRating = overallRating;
         this.synopsis = synopsis;
-        this.genres = bookManager.loadGenres(bookId);
-        this.moods = bookManager.getBookMoods(bookId);
-        this.reviewCount = bookManager.getRatingAndReviewCount(bookId);
+        this.reviewCount = reviewCount;
+    }
+
+    public synchronized void setDetails(int[] tagIds) {
+        this.tagIds = tagIds;
+        this.detailsLoaded = true;
+    }
+
+    public boolean isDetailsLoaded() {
+        return detailsLoaded;
+    }
+
+    private void ensureDetailsLoaded() {
+        if (!detailsLoaded) {
+            bookManager.hydrateBooks(List.of(this));
+        }
     }
 
     private String centerText(String text, int width) {
@@ -44,9 +58,9 @@ public class Book {
         sb.append(String.format("│ %-44s │\n", "Published Date: " + publishedDate));
         sb.append(String.format("│ %-44s │\n", "Page Count: " + pageCount));
         sb.append(String.format("│ %-44s │\n", String.format("Overall Rating: %.2f", overallRating)));
-        sb.append(String.format("│ %-44s │\n", "Genres: " + String.join(", ", genres)));
-        sb.append(String.format("│ %-44s │\n", "Moods: " + String.join(", ", moods)));
-        sb.append(String.format("│ %-44s │\n", "Reviews: " + reviewCount + " reviews"));
+        sb.append(String.format("│ %-44s │\n", "Genres: " + String.join(", ", getGenres())));
+        sb.append(String.format("│ %-44s │\n", "Moods: " + String.join(", ", getMoods())));
+        sb.append(String.format("│ %-44s │\n", "Reviews: " + getReviewCount() + " reviews"));
         sb.append("├──────────────────────────────────────────────┤\n");
         sb.append("│ Synopsis:                                    │\n");
 
@@ -84,7 +98,28 @@ public class Book {
         return synopsis;
     }
 
+    public synchronized int[] getTagIds() {
+        ensureDetailsLoaded();
+        return tagIds != null ? tagIds : new int[0];
+    }
+
+    public List<String> getGenres() {
+        return TagDictionary.getInstance().decode(getTagIds(), TagDictionary.GENRE);
+    }
+
+    public List<String> getMoods() {
+        return TagDictionary.getInstance().decode(getTagIds(), TagDictionary.MOOD);
+    }
+
+    public int getReviewCount() {
+        return reviewCount;
+    }
+
     public String getOverallRating() {
         return String.format("%.2f", overallRating);
     }
+
+    public double getOverallRatingValue() {
+        return overallRating;
+    }
 }
@@ -0,0 +1,33 @@
+package src.models;
+import java.math.BigDecimal;
+
+public class BookCursor {
+    private final BigDecimal averageRating;
+    private final int bookId;
+
+    public BookCursor(BigDecimal averageRating, int bookId) {
+        this.averageRating = averageRating;
+        this.bookId = bookId;
+    }
+
+    public static BookCursor parse(String value) {
+        String[] parts = value.split(":", 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid page cursor: " + value);
+        }
+        return new BookCursor(new BigDecimal(parts[0]), Integer.parseInt(parts[1]));
+    }
+
+    public BigDecimal getAverageRating() {
+        return averageRating;
+    }
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    @Override
+    public String toString() {
+        return averageRating.toPlainString() + ":" + bookId;
+    }
+}
@@ -0,0 +1,24 @@
+package src.models;
+import java.util.List;
+
+public class BookPage {
+    private final List<Book> books;
+    private final BookCursor nextCursor;
+
+    public BookPage(List<Book> books, BookCursor nextCursor) {
+        this.books = books;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    public BookCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNextPage() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,133 @@
+package src.models;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class ReadingStats {
+    private final Map<Integer, ReadEntry> readBooks = new HashMap<>();
+    private final TreeMap<String, int[]> monthlyTotals = new TreeMap<>();
+    private final Map<String, Integer> genreCounts = new HashMap<>();
+    private final Map<Integer, RatedEntry> ratedBooks = new HashMap<>();
+    private final TreeMap<String, int[]> monthlyRatings = new TreeMap<>();
+
+    public synchronized boolean hasRead(int bookId) {
+        return readBooks.containsKey(bookId);
+    }
+
+    public synchronized void addRead(int bookId, String month, int pageCount, List<String> genres) {
+        if (readBooks.containsKey(bookId)) {
+            return;
+        }
+        ReadEntry entry = new ReadEntry(month, pageCount, genres.toArray(new String[0]));
+        readBooks.put(bookId, entry);
+
+        int[] totals = monthlyTotals.computeIfAbsent(month, m -> new int[2]);
+        totals[0]++;
+        totals[1] += pageCount;
+        for (String genre : entry.genres) {
+            genreCounts.merge(genre, 1, Integer::sum);
+        }
+    }
+
+    public synchronized void removeRead(int bookId) {
+        ReadEntry entry = readBooks.remove(bookId);
+        if (entry == null) {
+            return;
+        }
+
+        int[] totals = monthlyTotals.get(entry.month);
+        totals[0]--;
+        totals[1] -= entry.pageCount;
+        if (totals[0] == 0) {
+            monthlyTotals.remove(entry.month);
+        }
+        for (String genre : entry.genres) {
+            if (genreCounts.merge(genre, -1, Integer::sum) == 0) {
+                genreCounts.remove(genre);
+            }
+        }
+    }
+
+    public synchronized void addRating(int bookId, String month, int rating) {
+        RatedEntry previous = ratedBooks.get(bookId);
+        if (previous != null) {
+            month = previous.month;
+            removeRating(bookId);
+        }
+        ratedBooks.put(bookId, new RatedEntry(month, rating));
+
+        int[] totals = monthlyRatings.computeIfAbsent(month, m -> new int[2]);
+        totals[0] += rating;
+        totals[1]++;
+    }
+
+    public synchronized void removeRating(int bookId) {
+        RatedEntry entry = ratedBooks.remove(bookId);
+        if (entry == null) {
+            return;
+        }
+
+        int[] totals = monthlyRatings.get(entry.month);
+        totals[0] -= entry.rating;
+        totals[1]--;
+        if (totals[1] == 0) {
+            monthlyRatings.remove(entry.month);
+        }
+    }
+
+    public synchronized int getReadCount() {
+        return readBooks.size();
+    }
+
+    public synchronized SortedMap<String, Integer> getBooksReadPerMonth() {
+        SortedMap<String, Integer> booksPerMonth = new TreeMap<>();
+        monthlyTotals.forEach((month, totals) -> booksPerMonth.put(month, totals[0]));
+        return booksPerMonth;
+    }
+
+    public synchronized SortedMap<String, Integer> getPagesReadPerMonth() {
+        SortedMap<String, Integer> pagesPerMonth = new TreeMap<>();
+        monthlyTotals.forEach((month, totals) -> pagesPerMonth.put(month, totals[1]));
+        return pagesPerMonth;
+    }
+
+    public synchronized SortedMap<String, Double> getAverageRatingPerMonth() {
+        SortedMap<String, Double> ratingPerMonth = new TreeMap<>();
+        monthlyRatings.forEach((month, totals) -> ratingPerMonth.put(month, totals[0] / (double) totals[1]));
+        return ratingPerMonth;
+    }
+
+    public synchronized List<Map.Entry<String, Integer>> getMostReadGenres() {
+        List<Map.Entry<String, Integer>> genres = new ArrayList<>();
+        genreCounts.forEach((genre, count) -> genres.add(Map.entry(genre, count)));
+        genres.sort((a, b) -> a.getValue().equals(b.getValue())
+                ? a.getKey().compareToIgnoreCase(b.getKey())
+                : b.getValue() - a.getValue());
+        return genres;
+    }
+
+    private static class ReadEntry {
+        private final String month;
+        private final int pageCount;
+        private final String[] genres;
+
+        private ReadEntry(String month, int pageCount, String[] genres) {
+            this.month = month;
+            this.pageCount = pageCount;
+            this.genres = genres;
+        }
+    }
+
+    private static class RatedEntry {
+        private final String month;
+        private final int rating;
+
+        private RatedEntry(String month, int rating) {
+            this.month = month;
+            this.rating = rating;
+        }
+    }
+}
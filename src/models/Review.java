@@ -0,0 +1,31 @@
+package src.models;
+
+public class Review {
+    private final String username;
+    private final int rating;
+    private final String reviewText;
+    private final String date;
+
+    public Review(String username, int rating, String reviewText, String date) {
+        this.username = username;
+        this.rating = rating;
+        this.reviewText = reviewText;
+        this.date = date;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public String getReviewText() {
+        return reviewText;
+    }
+
+    public String getDate() {
+        return date;
+    }
+}
@@ -0,0 +1,146 @@
+package src.models;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class UserContext {
+    private static final String READ_SHELF = "Read";
+
+    private final User user;
+    private final Map<String, Integer> shelfIds;
+    private final Map<Integer, String> shelfByBook;
+    private final Map<Integer, Integer> ratingByBook;
+    private int readCount;
+    private long ratingSum;
+
+    public UserContext(User user, Map<String, Integer> shelfIds, Map<Integer, String> shelfByBook, Map<Integer, Integer> ratingByBook) {
+        this.user = user;
+        this.shelfIds = Collections.unmodifiableMap(shelfIds);
+        this.shelfByBook = new HashMap<>(shelfByBook);
+        this.ratingByBook = new HashMap<>(ratingByBook);
+        for (String shelfName : this.shelfByBook.values()) {
+            if (shelfName.equals(READ_SHELF)) {
+                readCount++;
+            }
+        }
+        for (int rating : this.ratingByBook.values()) {
+            ratingSum += rating;
+        }
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public Map<String, Integer> getShelfIds() {
+        return shelfIds;
+    }
+
+    public List<String> getShelfNames() {
+        return new ArrayList<>(shelfIds.keySet());
+    }
+
+    public synchronized String getShelfOf(int bookId) {
+        return shelfByBook.get(bookId);
+    }
+
+    public synchronized void placeBook(int bookId, String shelfName) {
+        String previous = shelfByBook.put(bookId, shelfName);
+        if (READ_SHELF.equals(previous)) {
+            readCount--;
+        }
+        if (shelfName.equals(READ_SHELF)) {
+            readCount++;
+        }
+    }
+
+    public synchronized void removeBook(int bookId, String shelfName) {
+        if (shelfName.equals(shelfByBook.get(bookId))) {
+            shelfByBook.remove(bookId);
+            if (shelfName.equals(READ_SHELF)) {
+                readCount--;
+            }
+        }
+    }
+
+    public synchronized void forgetBook(int bookId) {
+        String shelfName = shelfByBook.get(bookId);
+        if (shelfName != null) {
+            removeBook(bookId, shelfName);
+        }
+        removeRating(bookId);
+    }
+
+    public synchronized void undoPlacement(int bookId, String placedShelf, String previousShelf) {
+        if (!placedShelf.equals(shelfByBook.get(bookId))) {
+            return;
+        }
+        if (previousShelf == null) {
+            removeBook(bookId, placedShelf);
+        } else {
+            placeBook(bookId, previousShelf);
+        }
+    }
+
+    public synchronized void undoRemoval(int bookId, String removedShelf) {
+        if (!shelfByBook.containsKey(bookId)) {
+            placeBook(bookId, removedShelf);
+        }
+    }
+
+    public synchronized int getReadCount() {
+        return readCount;
+    }
+
+    public synchronized boolean hasRated(int bookId) {
+        return ratingByBook.containsKey(bookId);
+    }
+
+    public synchronized void saveRating(int bookId, int rating) {
+        Integer previous = ratingByBook.put(bookId, rating);
+        ratingSum += rating - (previous == null ? 0 : previous);
+    }
+
+    public synchronized Integer getRating(int bookId) {
+        return ratingByBook.get(bookId);
+    }
+
+    public synchronized void undoRating(int bookId, int savedRating, Integer previousRating) {
+        Integer current = ratingByBook.get(bookId);
+        if (current == null || current != savedRating) {
+            return;
+        }
+        if (previousRating == null) {
+            removeRating(bookId);
+        } else {
+            saveRating(bookId, previousRating);
+        }
+    }
+
+    public synchronized void removeRating(int bookId) {
+        Integer previous = ratingByBook.remove(bookId);
+        if (previous != null) {
+            ratingSum -= previous;
+        }
+    }
+
+    public synchronized Map<Integer, Integer> getRatings() {
+        return new HashMap<>(ratingByBook);
+    }
+
+    public synchronized Set<Integer> getShelvedBookIds() {
+        return new HashSet<>(shelfByBook.keySet());
+    }
+
+    public synchronized int getReviewCount() {
+        return ratingByBook.size();
+    }
+
+    public synchronized double getAverageRating() {
+        return ratingByBook.isEmpty() ? 0.0 : ratingSum / (double) ratingByBook.size();
+    }
+}
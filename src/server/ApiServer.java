@@ -0,0 +1,598 @@
+package src.server;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import src.managers.BookCache;
+import src.managers.BookManager;
+import src.managers.RecommendationEngine;
+import src.managers.ReviewManager;
+import src.managers.SessionRegistry;
+import src.managers.ShelfManager;
+import src.managers.TagDictionary;
+import src.managers.UserManager;
+import src.managers.WriteBehindQueue;
+import src.models.Book;
+import src.models.BookCursor;
+import src.models.BookPage;
+import src.models.ReadingStats;
+import src.models.Review;
+import src.models.User;
+import src.models.UserContext;
+import src.util.JsonWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ApiServer {
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String BOOT_ID = Long.toString(System.currentTimeMillis(), 36);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final BookManager bookManager = new BookManager();
+    private final ShelfManager shelfManager = new ShelfManager();
+    private final ReviewManager reviewManager = new ReviewManager();
+    private final UserManager userManager = UserManager.getInstance();
+    private final SessionRegistry sessions = SessionRegistry.getInstance();
+    private final BookCache bookCache = BookCache.getInstance();
+    private final WriteBehindQueue writeQueue = WriteBehindQueue.getInstance();
+    private final RecommendationEngine recommendationEngine = RecommendationEngine.getInstance();
+
+    public ApiServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("PlotPoint API listening on http:/" + server.getAddress());
+    }
+
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) {
+        try {
+            route(new Request(exchange));
+        } catch (ApiException e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Error handling " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + ": " + e.getMessage());
+            sendError(exchange, 500, "Internal server error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(Request request) throws IOException {
+        List<String> path = request.path;
+        String resource = path.isEmpty() ? "" : path.get(0);
+
+        switch (resource) {
+            case "login" -> {
+                request.requireMethod("POST", path.size() == 1);
+                logIn(request);
+            }
+            case "logout" -> {
+                request.requireMethod("POST", path.size() == 1);
+                sessions.close(request.token());
+                request.sendEmpty(204);
+            }
+            case "books" -> {
+                if (path.size() == 1) {
+                    request.requireMethod("GET", true);
+                    searchBooks(request);
+                } else if (path.size() == 2) {
+                    request.requireMethod("GET", true);
+                    getBook(request, parseId(path.get(1)));
+                } else if (path.size() == 3 && path.get(2).equals("reviews")) {
+                    request.requireMethod("GET", true);
+                    getReviews(request, parseId(path.get(1)));
+                } else if (path.size() == 3 && path.get(2).equals("review")) {
+                    if (request.method.equals("PUT")) {
+                        saveReview(request, parseId(path.get(1)));
+                    } else {
+                        request.requireMethod("DELETE", true);
+                        deleteReview(request, parseId(path.get(1)));
+                    }
+                } else {
+                    throw new ApiException(404, "Not found");
+                }
+            }
+            case "recommendations" -> {
+                request.requireMethod("GET", path.size() == 1);
+                getRecommendations(request);
+            }
+            case "tags" -> {
+                request.requireMethod("GET", path.size() == 1);
+                getTags(request);
+            }
+            case "shelves" -> {
+                if (path.size() == 1) {
+                    request.requireMethod("GET", true);
+                    getShelves(request);
+                } else if (path.size() == 2) {
+                    request.requireMethod("GET", true);
+                    getShelf(request, path.get(1));
+                } else if (path.size() == 4 && path.get(2).equals("books")) {
+                    if (request.method.equals("PUT")) {
+                        shelveBook(request, path.get(1), parseId(path.get(3)));
+                    } else {
+                        request.requireMethod("DELETE", true);
+                        unshelveBook(request, path.get(1), parseId(path.get(3)));
+                    }
+                } else {
+                    throw new ApiException(404, "Not found");
+                }
+            }
+            case "profile" -> {
+                request.requireMethod("GET", path.size() == 1);
+                getProfile(request);
+            }
+            case "stats" -> {
+                request.requireMethod("GET", path.size() == 1);
+                getStats(request);
+            }
+            default -> throw new ApiException(404, "Not found");
+        }
+    }
+
+    private void logIn(Request request) throws IOException {
+        String token = userManager.openSession(request.requireParam("username"), request.requireParam("password"));
+        if (token == null) {
+            throw new ApiException(401, "Invalid username or password");
+        }
+        User user = sessions.get(token).getUser();
+
+        request.sendJson(200, null, json -> json.beginObject()
+                .name("token").value(token)
+                .name("userId").value(user.getUserId())
+                .name("username").value(user.getUsername())
+                .name("isAdmin").value(user.isAdmin())
+                .endObject());
+    }
+
+    private void searchBooks(Request request) throws IOException {
+        String etag = catalogEtag();
+        if (request.notModified(etag)) {
+            return;
+        }
+        int pageSize = request.pageSize();
+        BookCursor cursor = request.cursor();
+
+        BookPage page;
+        if (request.param("title") != null) {
+            page = bookManager.searchByTitle(request.param("title"), cursor, pageSize);
+        } else if (request.param("author") != null) {
+            page = bookManager.searchByAuthor(request.param("author"), cursor, pageSize);
+        } else if (request.param("keywords") != null) {
+            page = bookManager.searchByKeywords(request.param("keywords"), cursor, pageSize);
+        } else if (request.param("q") != null) {
+            page = new BookPage(bookManager.quickSearch(request.param("q"), pageSize), null);
+        } else {
+            throw new ApiException(400, "One of title, author, keywords or q is required");
+        }
+
+        sendPage(request, etag, page);
+    }
+
+    private void getBook(Request request, int bookId) throws IOException {
+        String etag = catalogEtag();
+        if (request.notModified(etag)) {
+            return;
+        }
+        Book book = requireBook(bookId);
+        request.sendJson(200, etag, json -> writeBook(json, book));
+    }
+
+    private void getReviews(Request request, int bookId) throws IOException {
+        String etag = catalogEtag();
+        if (request.notModified(etag)) {
+            return;
+        }
+        requireBook(bookId);
+        List<Review> reviews = reviewManager.getReviews(bookId);
+
+        request.sendJson(200, etag, json -> {
+            json.beginObject().name("reviews").beginArray();
+            for (Review review : reviews) {
+                json.beginObject()
+                        .name("username").value(review.getUsername())
+                        .name("rating").value(review.getRating())
+                        .name("review").value(review.getReviewText())
+                        .name("date").value(review.getDate())
+                        .endObject();
+            }
+            json.endArray().endObject();
+        });
+    }
+
+    private void saveReview(Request request, int bookId) throws IOException {
+        UserContext context = request.requireSession();
+        requireBook(bookId);
+        int rating = parseInt(request.requireParam("rating"), "rating");
+        if (rating < 1 || rating > 5) {
+            throw new ApiException(400, "rating must be between 1 and 5");
+        }
+
+        reviewManager.addRatingAndReview(context.getUser().getUserId(), bookId, rating, request.requireParam("review"));
+        requireOwnWritesSaved();
+        request.sendEmpty(204);
+    }
+
+    private void deleteReview(Request request, int bookId) throws IOException {
+        UserContext context = request.requireSession();
+        try {
+            if (!reviewManager.deleteReview(bookId, context.getUser().getUserId())) {
+                throw new ApiException(404, "Review not found");
+            }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+        request.sendEmpty(204);
+    }
+
+    private void getRecommendations(Request request) throws IOException {
+        String tag = request.param("tag");
+        if (tag == null) {
+            UserContext context = request.requireSession();
+            List<Integer> bookIds = recommendationEngine.recommend(context.getUser().getUserId(), request.pageSize());
+            sendPage(request, null, new BookPage(bookManager.getBooksByIds(bookIds), null));
+            return;
+        }
+        String etag = catalogEtag();
+        if (request.notModified(etag)) {
+            return;
+        }
+        BookPage page = bookManager.getRecommendedBooksByTag(tag, request.cursor(), request.pageSize());
+        sendPage(request, etag, page);
+    }
+
+    private void getTags(Request request) throws IOException {
+        String etag = catalogEtag();
+        if (request.notModified(etag)) {
+            return;
+        }
+        String type = request.param("type");
+        List<String> types = type != null ? List.of(type) : List.of(TagDictionary.GENRE, TagDictionary.MOOD);
+
+        request.sendJson(200, etag, json -> {
+            json.beginObject();
+            for (String tagType : types) {
+                json.name(tagType).beginArray();
+                for (String tag : bookManager.getTagsByType(tagType)) {
+                    json.value(tag);
+                }
+                json.endArray();
+            }
+            json.endObject();
+        });
+    }
+
+    private void getShelves(Request request) throws IOException {
+        UserContext context = request.requireSession();
+        request.sendJson(200, null, json -> {
+            json.beginObject().name("shelves").beginArray();
+            for (String shelfName : context.getShelfNames()) {
+                json.value(shelfName);
+            }
+            json.endArray().endObject();
+        });
+    }
+
+    private void getShelf(Request request, String shelfName) throws IOException {
+        UserContext context = request.requireSession();
+        requireShelf(context, shelfName);
+        List<Book> books = shelfManager.getBooksInShelf(context.getUser().getUserId(), shelfName);
+        sendPage(request, null, new BookPage(books, null));
+    }
+
+    private void shelveBook(Request request, String shelfName, int bookId) throws IOException {
+        UserContext context = request.requireSession();
+        requireShelf(context, shelfName);
+        shelfManager.moveBookToShelf(context.getUser().getUserId(), requireBook(bookId), shelfName);
+        requireOwnWritesSaved();
+        request.sendEmpty(204);
+    }
+
+    private void unshelveBook(Request request, String shelfName, int bookId) throws IOException {
+        UserContext context = request.requireSession();
+        requireShelf(context, shelfName);
+        if (!shelfName.equals(context.getShelfOf(bookId))) {
+            throw new ApiException(404, "Book is not on this shelf");
+        }
+        shelfManager.removeBookFromShelf(context.getUser().getUserId(), bookId, shelfName);
+        requireOwnWritesSaved();
+        request.sendEmpty(204);
+    }
+
+    private void getProfile(Request request) throws IOException {
+        UserContext context = request.requireSession();
+        User user = context.getUser();
+
+        request.sendJson(200, null, json -> json.beginObject()
+                .name("userId").value(user.getUserId())
+                .name("username").value(user.getUsername())
+                .name("dateJoined").value(user.getDateJoined().toString())
+                .name("reviewCount").value(context.getReviewCount())
+                .name("averageRating").value(context.getAverageRating())
+                .name("booksRead").value(context.getReadCount())
+                .endObject());
+    }
+
+    private void getStats(Request request) throws IOException {
+        UserContext context = request.requireSession();
+        ReadingStats stats = shelfManager.getReadingStats(context.getUser());
+
+        request.sendJson(200, null, json -> {
+            json.beginObject().name("mostReadGenres").beginArray();
+            for (Map.Entry<String, Integer> genre : stats.getMostReadGenres()) {
+                json.beginObject().name("genre").value(genre.getKey()).name("count").value(genre.getValue()).endObject();
+            }
+            json.endArray();
+
+            json.name("booksReadPerMonth").beginObject();
+            for (Map.Entry<String, Integer> month : stats.getBooksReadPerMonth().entrySet()) {
+                json.name(month.getKey()).value(month.getValue());
+            }
+            json.endObject();
+
+            json.name("pagesReadPerMonth").beginObject();
+            for (Map.Entry<String, Integer> month : stats.getPagesReadPerMonth().entrySet()) {
+                json.name(month.getKey()).value(month.getValue());
+            }
+            json.endObject();
+
+            json.name("averageRatingPerMonth").beginObject();
+            for (Map.Entry<String, Double> month : stats.getAverageRatingPerMonth().entrySet()) {
+                json.name(month.getKey()).value(month.getValue());
+            }
+            json.endObject().endObject();
+        });
+    }
+
+    private void sendPage(Request request, String etag, BookPage page) throws IOException {
+        List<Book> books = page.getBooks();
+        bookManager.hydrateBooks(books);
+
+        request.sendJson(200, etag, json -> {
+            json.beginObject().name("books").beginArray();
+            for (Book book : books) {
+                writeBook(json, book);
+            }
+            json.endArray();
+            json.name("nextCursor").value(page.hasNextPage() ? page.getNextCursor().toString() : null);
+            json.endObject();
+        });
+    }
+
+    private void writeBook(JsonWriter json, Book book) throws IOException {
+        json.beginObject()
+                .name("id").value(book.getBookId())
+                .name("title").value(book.getTitle())
+                .name("author").value(book.getAuthor())
+                .name("publishedDate").value(book.getPublishedDate())
+                .name("pageCount").value(book.getPageCount())
+                .name("averageRating").value(book.getOverallRatingValue())
+                .name("reviewCount").value(book.getReviewCount())
+                .name("genres").beginArray();
+        for (String genre : book.getGenres()) {
+            json.value(genre);
+        }
+        json.endArray().name("moods").beginArray();
+        for (String mood : book.getMoods()) {
+            json.value(mood);
+        }
+        json.endArray()
+                .name("synopsis").value(book.getSynopsis())
+                .endObject();
+    }
+
+    private Book requireBook(int bookId) {
+        Book book = bookManager.getBookById(bookId);
+        if (book == null) {
+            throw new ApiException(404, "Book not found");
+        }
+        return book;
+    }
+
+    private void requireOwnWritesSaved() {
+        if (!writeQueue.awaitOwnWrites()) {
+            throw new ApiException(503, "The change could not be saved; please try again");
+        }
+    }
+
+    private void requireShelf(UserContext context, String shelfName) {
+        if (!context.getShelfIds().containsKey(shelfName)) {
+            throw new ApiException(404, "Shelf not found");
+        }
+    }
+
+    private String catalogEtag() {
+        long cachePeriod = System.currentTimeMillis() / bookCache.getTtlMillis();
+        return "\"" + BOOT_ID + "-" + bookCache.getGeneration() + "-" + cachePeriod + "\"";
+    }
+
+    private static int parseId(String value) {
+        return parseInt(value, "id");
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, name + " must be a number");
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        try {
+            new Request(exchange).sendJson(status, null, json -> json.beginObject().name("error").value(message).endObject());
+        } catch (IOException e) {
+            System.err.println("Error sending error response: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, String> parseForm(String encoded) {
+        Map<String, String> params = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return params;
+        }
+        for (String pair : encoded.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.putIfAbsent(key, value);
+        }
+        return params;
+    }
+
+    private interface JsonBody {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    private static class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        private ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private class Request {
+        private final HttpExchange exchange;
+        private final String method;
+        private final List<String> path = new ArrayList<>();
+        private Map<String, String> params;
+
+        private Request(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.method = exchange.getRequestMethod();
+            for (String segment : exchange.getRequestURI().getRawPath().split("/")) {
+                if (!segment.isEmpty()) {
+                    path.add(URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        private void requireMethod(String expected, boolean pathMatches) {
+            if (!pathMatches) {
+                throw new ApiException(404, "Not found");
+            }
+            if (!method.equals(expected)) {
+                exchange.getResponseHeaders().set("Allow", expected);
+                throw new ApiException(405, "Method not allowed");
+            }
+        }
+
+        private String param(String name) throws IOException {
+            if (params == null) {
+                params = parseForm(exchange.getRequestURI().getRawQuery());
+                String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+                if (contentType != null && contentType.startsWith("application/x-www-form-urlencoded")) {
+                    try (InputStream body = exchange.getRequestBody()) {
+                        parseForm(new String(body.readAllBytes(), StandardCharsets.UTF_8)).forEach(params::putIfAbsent);
+                    }
+                }
+            }
+            return params.get(name);
+        }
+
+        private String requireParam(String name) throws IOException {
+            String value = param(name);
+            if (value == null || value.isBlank()) {
+                throw new ApiException(400, name + " is required");
+            }
+            return value;
+        }
+
+        private int pageSize() throws IOException {
+            String limit = param("limit");
+            int pageSize = limit == null ? DEFAULT_PAGE_SIZE : parseInt(limit, "limit");
+            return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+        }
+
+        private BookCursor cursor() throws IOException {
+            String cursor = param("cursor");
+            try {
+                return cursor == null ? null : BookCursor.parse(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ApiException(400, "Invalid cursor");
+            }
+        }
+
+        private String token() {
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (authorization == null || !authorization.startsWith("Bearer ")) {
+                throw new ApiException(401, "Missing bearer token");
+            }
+            return authorization.substring("Bearer ".length()).trim();
+        }
+
+        private UserContext requireSession() {
+            UserContext context = sessions.get(token());
+            if (context == null) {
+                throw new ApiException(401, "Session expired or invalid");
+            }
+            return context;
+        }
+
+        private boolean notModified(String etag) throws IOException {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals(etag) || tag.equals("W/" + etag) || tag.equals("*")) {
+                    exchange.getResponseHeaders().set("ETag", etag);
+                    exchange.sendResponseHeaders(304, -1);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void sendEmpty(int status) throws IOException {
+            exchange.sendResponseHeaders(status, -1);
+        }
+
+        private void sendJson(int status, String etag, JsonBody body) throws IOException {
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("Content-Type", "application/json; charset=utf-8");
+            if (etag != null) {
+                headers.set("ETag", etag);
+                headers.set("Cache-Control", "no-cache");
+            }
+            exchange.sendResponseHeaders(status, 0);
+
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                JsonWriter json = new JsonWriter(writer);
+                body.write(json);
+            }
+        }
+    }
+}
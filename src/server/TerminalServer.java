@@ -0,0 +1,83 @@
+package src.server;
+import src.managers.UserManager;
+import src.menus.MainMenu;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TerminalServer {
+    private final int port;
+    private final Set<Socket> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sessionCounter = new AtomicInteger();
+    private volatile ServerSocket serverSocket;
+
+    public TerminalServer(int port) {
+        this.port = port;
+    }
+
+    public void serve() throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        SessionConsole.install();
+        System.out.println("PlotPoint server listening on " + serverSocket.getLocalSocketAddress());
+
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    break;
+                }
+                throw e;
+            }
+            sessions.add(socket);
+            Thread.ofVirtual()
+                    .name("plotpoint-session-" + sessionCounter.incrementAndGet())
+                    .start(() -> runSession(socket));
+        }
+    }
+
+    private void runSession(Socket socket) {
+        try (socket;
+             Scanner input = new Scanner(socket.getInputStream(), StandardCharsets.UTF_8);
+             PrintStream output = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+
+            SessionConsole.bind(output);
+            new MainMenu(input).displayMenu();
+        } catch (NoSuchElementException | IllegalStateException e) {
+            // The client disconnected mid-prompt.
+        } catch (IOException e) {
+            System.err.println("Error in session " + Thread.currentThread().getName() + ": " + e.getMessage());
+        } finally {
+            SessionConsole.unbind();
+            UserManager.getInstance().logOut();
+            sessions.remove(socket);
+        }
+    }
+
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    public void close() {
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+            for (Socket socket : sessions) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing server: " + e.getMessage());
+        }
+    }
+}